@@ -3,14 +3,21 @@ package Client;
 import Common.*; 
 import Server.*;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.net.Socket;
 import java.net.UnknownHostException;
 import java.util.Scanner;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -24,14 +31,28 @@ public enum Client {
     INSTANCE;
 
     private Socket server = null;
-    private ObjectOutputStream out = null;
-    private ObjectInputStream in = null;
+    private DataOutputStream out = null;
+    private DataInputStream in = null;
+    private volatile PayloadCodec codec = SerializedPayloadCodec.INSTANCE; // outbound, negotiated on CLIENT_ID
+    // runs listenToServer(); virtual when -Dclient.virtualThreads=true and the JVM supports it
+    private final ExecutorService listenerThreads = ConnectionThreads.newPerTaskExecutor(
+            Boolean.getBoolean("client.virtualThreads") ? ConnectionThreads.Mode.VIRTUAL
+                    : ConnectionThreads.Mode.PLATFORM,
+            "ServerListener");
+    // keeps the connection from being reaped by the server's idle check
+    private final ScheduledExecutorService heartbeatTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "Heartbeat");
+        t.setDaemon(true);
+        return t;
+    });
+    private ScheduledFuture<?> heartbeatFuture;
 
     // UCID: LM87 | 2025-08-09
     // Summary: Allows /connect localhost:port or IP:port.
     final Pattern ipAddressPattern = Pattern
             .compile("/connect\\s+(\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}:\\d{3,5})");
     final Pattern localhostPattern = Pattern.compile("/connect\\s+(localhost:\\d{3,5})");
+    private static final Pattern READY_PATTERN = Pattern.compile("\\[READY\\]\\s+(\\d+)\\s+(\\d)");
     private volatile boolean isRunning = true; // volatile for thread-safe visibility
     private final ConcurrentHashMap<Long, User> knownClients = new ConcurrentHashMap<Long, User>();
     private User myUser = new User();
@@ -72,14 +93,25 @@ public enum Client {
 
     public synchronized String uiGetLastRoundPick() { return uiLastRoundPick; }
 
-    private final java.util.List<String> knownRooms =
-            new java.util.concurrent.CopyOnWriteArrayList<>();
+    // kept sorted like the server's directory; deltas are applied in place
+    private final java.util.concurrent.ConcurrentSkipListSet<String> knownRooms =
+            new java.util.concurrent.ConcurrentSkipListSet<>(String.CASE_INSENSITIVE_ORDER);
+    private volatile java.util.function.Consumer<Common.RoomsPayload> roomsListener;
 
     public java.util.List<String> uiGetRoomsSnapshot() {
         return new java.util.ArrayList<>(knownRooms);
     }
 
+    // UCID: lm87 | Date: 2026-10-17
+    // Brief: RoomsPanel hears every snapshot/delta/page instead of polling the full list.
+    public void uiSetRoomsListener(java.util.function.Consumer<Common.RoomsPayload> listener) {
+        this.roomsListener = listener;
+    }
+
     private volatile boolean cooldownEnabled = false;   // NEW
+    // last USER_LIST version applied (only touched by the listener thread)
+    private long userListVersion = -1;
+    private boolean resyncRequested = false;
    
     private volatile String  uiLastRoundPick = null;    // NEW - what I picked last round
 
@@ -285,6 +317,18 @@ public boolean uiIsSpectator(long id) {
         p.setMessage(name);
         sendToServer(p);
     }
+    // UCID: lm87 | Date: 2026-10-17
+    // Brief: Asks the server for one page of rooms, optionally filtered by name prefix.
+    public void uiRequestRooms(String prefix, int offset, int limit) throws java.io.IOException {
+        Common.RoomsPayload rp = new Common.RoomsPayload();
+        rp.setPayloadType(PayloadType.ROOMS_SYNC);
+        rp.setKind(Common.RoomsPayload.KIND_PAGE);
+        rp.setPrefix(prefix);
+        rp.setOffset(offset);
+        rp.setLimit(limit);
+        sendToServer(rp);
+    }
+
     public synchronized void uiJoinRoom(String name) throws java.io.IOException {
         Payload p = new Payload();
         p.setPayloadType(PayloadType.ROOM_JOIN);
@@ -314,12 +358,14 @@ public boolean uiIsSpectator(long id) {
         try {
             server = new Socket(address, port);
             // channel to send to server
-            out = new ObjectOutputStream(server.getOutputStream());
+            out = new DataOutputStream(new BufferedOutputStream(server.getOutputStream()));
             // channel to listen to server
-            in = new ObjectInputStream(server.getInputStream());
+            in = new DataInputStream(new BufferedInputStream(server.getInputStream()));
             System.out.println("Client connected");
-            // Use CompletableFuture to run listenToServer() in a separate thread
-            CompletableFuture.runAsync(this::listenToServer);
+            // Use CompletableFuture to run listenToServer() in a separate (dedicated) thread
+            // instead of tying up the common pool with a blocking read
+            CompletableFuture.runAsync(this::listenToServer, listenerThreads);
+            startHeartbeat();
         } catch (UnknownHostException e) {
             e.printStackTrace();
         } catch (IOException e) {
@@ -592,13 +638,39 @@ public boolean uiIsSpectator(long id) {
         ConnectionPayload payload = new ConnectionPayload();
         payload.setClientName(name);
         payload.setPayloadType(PayloadType.CLIENT_CONNECT);
+        // offer the compact codec unless forced with -Dclient.codec=java
+        payload.setCodecs(System.getProperty("client.codec", PayloadCodecs.SUPPORTED));
+        codec = SerializedPayloadCodec.INSTANCE; // handshake always goes out in the format every server reads
         sendToServer(payload);
     }
 
+    // UCID: lm87 | Date: 2026-10-17
+    // Brief: Sends a HEARTBEAT every HEARTBEAT_INTERVAL_MS so an idle but healthy client isn't disconnected.
+    private synchronized void startHeartbeat() {
+        if (heartbeatFuture != null) {
+            heartbeatFuture.cancel(false);
+        }
+        heartbeatFuture = heartbeatTimer.scheduleAtFixedRate(() -> {
+            if (!isConnected()) {
+                return;
+            }
+            Payload p = new Payload();
+            p.setPayloadType(PayloadType.HEARTBEAT);
+            try {
+                sendToServer(p);
+            } catch (IOException e) {
+                // the listener notices the dropped connection and closes it
+            }
+        }, Constants.HEARTBEAT_INTERVAL_MS, Constants.HEARTBEAT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
     private void sendToServer(Payload payload) throws IOException {
         if (isConnected()) {
-            out.writeObject(payload);
-            out.flush(); // good practice to ensure data is written out immediately
+            byte[] body = codec.encode(payload);
+            synchronized (out) {
+                PayloadFraming.writeFrame(out, body);
+                out.flush(); // good practice to ensure data is written out immediately
+            }
         } else {
             System.out.println(
                     "Not connected to server (hint: type `/connect host:port` without the quotes and replace host/port with the necessary info)");
@@ -622,7 +694,8 @@ public boolean uiIsSpectator(long id) {
     private void listenToServer() {
         try {
             while (isRunning && isConnected()) {
-                Payload fromServer = (Payload) in.readObject(); // blocking read
+                byte[] frame = PayloadFraming.readFrame(in); // blocking read
+                Payload fromServer = PayloadCodecs.decode(frame, 0, frame.length);
                 if (fromServer != null) {
                     processPayload(fromServer);
 
@@ -631,7 +704,7 @@ public boolean uiIsSpectator(long id) {
                     break;
                 }
             }
-        } catch (ClassCastException | ClassNotFoundException cce) {
+        } catch (ClassCastException cce) {
             System.err.println("Error reading object as specified type: " + cce.getMessage());
             cce.printStackTrace();
         } catch (IOException e) {
@@ -672,29 +745,51 @@ public boolean uiIsSpectator(long id) {
             case SYNC_CLIENT:
                 processRoomAction(payload);
                 break;
+            case ROSTER:
+                processRoster(payload);
+                break;
                 // UCID: lm87 | Date: 2025-08-10
             case POINTS_SYNC:
             processPointsSync(payload);
             break;
+            case GAME_EVENT:
+                processGameEvent(payload);
+                break;
+            case BATCH:
+                // one room tick's broadcasts, applied in the order they were made
+                for (Payload item : ((BatchPayload) payload).getPayloads()) {
+                    processPayload(item);
+                }
+                break;
             case ROOMS_SYNC:
             if (payload instanceof Common.RoomsPayload) {
                 Common.RoomsPayload rp = (Common.RoomsPayload) payload;
-                knownRooms.clear();
-                if (rp.getRooms() != null) knownRooms.addAll(rp.getRooms());
+                java.util.List<String> names = rp.getRooms() == null
+                        ? java.util.Collections.emptyList() : rp.getRooms();
+                switch (rp.getKind()) {
+                    case Common.RoomsPayload.KIND_SNAPSHOT:
+                        knownRooms.clear();
+                        knownRooms.addAll(names);
+                        break;
+                    case Common.RoomsPayload.KIND_ADDED:
+                        knownRooms.addAll(names); // set semantics, a repeat is harmless
+                        break;
+                    case Common.RoomsPayload.KIND_REMOVED:
+                        knownRooms.removeAll(names);
+                        break;
+                    default:
+                        // PAGE answers a search; it's handed to the listener as-is
+                        break;
+                }
+                java.util.function.Consumer<Common.RoomsPayload> listener = roomsListener;
+                if (listener != null) listener.accept(rp);
                 // optional: System.out.println("Rooms: " + knownRooms);
             }
             break;
 
             case USER_LIST: {
                 if (payload instanceof Common.UserListPayload) {
-                    Common.UserListPayload up = (Common.UserListPayload) payload;
-
-
-                   if (up.getPoints() != null)     { pointsMap.clear();     pointsMap.putAll(up.getPoints()); }
-if (up.getEliminated() != null) { eliminatedMap.clear(); eliminatedMap.putAll(up.getEliminated()); }
-if (up.getPending() != null)    { pendingMap.clear();    pendingMap.putAll(up.getPending()); }
-if (up.getAway() != null)       { awayMap.clear();       awayMap.putAll(up.getAway()); }
-if (up.getSpectators() != null) { spectatorMap.clear();  spectatorMap.putAll(up.getSpectators()); }
+                    applyUserList((Common.UserListPayload) payload);
                 }
 
                 
@@ -737,6 +832,7 @@ if (up.getSpectators() != null) { spectatorMap.clear();  spectatorMap.putAll(up.
         myUser.setClientId(payload.getClientId());
         myClientId = payload.getClientId();
         myUser.setClientName(((ConnectionPayload) payload).getClientName());// confirmation from Server
+        codec = PayloadCodecs.forName(((ConnectionPayload) payload).getCodecs()); // server's negotiated choice
         knownClients.put(myUser.getClientId(), myUser);
         System.out.println(TextFX.colorize("Connected", Color.GREEN));
     }
@@ -777,6 +873,31 @@ if (up.getSpectators() != null) { spectatorMap.clear();  spectatorMap.putAll(up.
 
     }
 
+    // UCID: lm87 | Date: 2026-10-17
+    // Summary: Replaces knownClients with the room's roster in one go (we just joined a room).
+    private void processRoster(Payload payload) {
+        if (!(payload instanceof RosterPayload)) {
+            error("Invalid payload subclass for processRoster");
+            return;
+        }
+        RosterPayload roster = (RosterPayload) payload;
+        knownClients.clear();
+        for (int i = 0; i < roster.getClientIds().size(); i++) {
+            long id = roster.getClientIds().get(i);
+            if (id == myUser.getClientId()) {
+                knownClients.put(id, myUser); // keep our own instance
+                continue;
+            }
+            User user = new User();
+            user.setClientId(id);
+            user.setClientName(roster.getClientNames().get(i));
+            knownClients.put(id, user);
+        }
+        if (roster.getMessage() != null) {
+            System.out.println(TextFX.colorize(roster.getMessage(), Color.GREEN));
+        }
+    }
+
     // UCID: LM87 | 2025-08-09
     // Summary: Prints join message and syncs known clients on ROOM_JOIN/SYNC_CLIENT.
     private void processRoomAction(Payload payload) {
@@ -830,37 +951,12 @@ if (up.getSpectators() != null) { spectatorMap.clear();  spectatorMap.putAll(up.
         }
     }
 
-    private void processMessage(Payload payload) {
+    // package-private for ClientBenchmarks
+    void processMessage(Payload payload) {
         String msg = payload.getMessage();
         if (msg != null) {
-            // Robust READY parser:
-            // works for formats like:
-            //   "[READY] 2 1"
-            //   "alice: [READY] 2 1"
-            //   "Room[lobby] alice: [READY] 2 1"
-
-                    java.util.regex.Matcher mCd = java.util.regex.Pattern
-                    .compile("\\[SETTINGS\\]\\s+COOLDOWN\\s+(\\S+)")
-                    .matcher(msg);
-                if (mCd.find()) {
-                    cooldownEnabled = "1".equals(mCd.group(1)) || Boolean.parseBoolean(mCd.group(1));
-                    return;
-                }
-            // Robust parser: allow prefixes like "Room[x] alice: [SETTINGS] EXTRA_CHOICES true FULL"
-                java.util.regex.Matcher mSet = java.util.regex.Pattern
-                .compile("\\[SETTINGS\\]\\s+EXTRA_CHOICES\\s+(\\S+)\\s+(\\S+)")
-                .matcher(msg);
-                if (mSet.find()) {
-                String enabledStr = mSet.group(1);
-                String modeStr    = mSet.group(2);
-                try {
-                extraChoicesEnabled = "1".equals(enabledStr) || Boolean.parseBoolean(enabledStr);
-                extraChoicesMode = modeStr;
-                // Optional: small toast/log
-                addEvent("Extra choices: " + extraChoicesEnabled + " (" + extraChoicesMode + ")");
-                } catch (Exception ignored) {}
-                return; // do not echo control messages as chat
-                }
+            // Note: game control traffic now arrives as GameEventPayload (see
+            // processGameEvent()); only cheap prefix checks remain for chat lines
 
                 if (msg.startsWith("[EXTRA_CHOICES]")) {
                     String[] parts = msg.split("\\s+");
@@ -877,66 +973,28 @@ if (up.getSpectators() != null) { spectatorMap.clear();  spectatorMap.putAll(up.
                     return; // don't echo as chat
                 }
 
-            java.util.regex.Matcher m = java.util.regex.Pattern
-                    .compile("\\[READY\\]\\s+(\\d+)\\s+(\\d)")
-                    .matcher(msg);
-            if (m.find()) {
-                try {
-                    long id = Long.parseLong(m.group(1));
-                    boolean val = "1".equals(m.group(2));
-                    readyMap.put(id, val);
-                                addEvent("Round started: " + roundDurationSec + "s");
-
-
-                } catch (Exception ignored) {}
-
-               
-
-
-
-                return; // don't print READY control messages to chat
+            // Robust READY parser:
+            // works for formats like:
+            //   "[READY] 2 1"
+            //   "alice: [READY] 2 1"
+            //   "Room[lobby] alice: [READY] 2 1"
+            if (msg.contains("[READY]")) {
+                Matcher m = READY_PATTERN.matcher(msg);
+                if (m.find()) {
+                    try {
+                        long id = Long.parseLong(m.group(1));
+                        boolean val = "1".equals(m.group(2));
+                        readyMap.put(id, val);
+                    } catch (Exception ignored) {}
+                    return; // don't print READY control messages to chat
+                }
             }
-            java.util.regex.Matcher mPend = java.util.regex.Pattern
-                .compile("\\[PENDING\\]\\s+(\\d+)\\s+(\\d)")
-                .matcher(msg);
-        if (mPend.find()) {
-            long id = Long.parseLong(mPend.group(1));
-            boolean val = "1".equals(mPend.group(2));
-            pendingMap.put(id, val);
-            return;
-        }
 
         if (msg.endsWith(" is away") || msg.endsWith(" is no longer away")) {
     addEvent(msg);
     // return; // not required; you can also still print it to console
 }
 
-        java.util.regex.Matcher mElim = java.util.regex.Pattern
-                .compile("\\[ELIM\\]\\s+(\\d+)\\s+(\\d)")
-                .matcher(msg);
-        if (mElim.find()) {
-            long id = Long.parseLong(mElim.group(1));
-            boolean val = "1".equals(mElim.group(2));
-            eliminatedMap.put(id, val);
-            if (val) pendingMap.put(id, false); // eliminated can't be pending
-            return;
-        }
-
-
-        java.util.regex.Matcher mRS = java.util.regex.Pattern
-        .compile("\\[ROUND_START\\]\\s+(\\d+)")
-        .matcher(msg);
-        if (mRS.find()) {
-            roundDurationSec = Integer.parseInt(mRS.group(1));
-            roundEndEpochMs = System.currentTimeMillis() + (long)roundDurationSec * 1000L;
-            addEvent("Round started: " + roundDurationSec + "s");
-
-            uiSelectedPick = null;
-            return; // don't echo this as chat
-        }
-
-        
-
         if(msg.startsWith("Round ") && msg.contains("ending")){
             uiLastRoundPick = uiSelectedPick;  
         }
@@ -956,6 +1014,90 @@ if (up.getSpectators() != null) { spectatorMap.clear();  spectatorMap.putAll(up.
         System.out.println(TextFX.colorize(msg, Color.BLUE));
     }
 
+    // UCID: lm87 | Date: 2026-10-17
+    // Brief: Keyframes replace the maps; deltas are applied in place if they continue our version,
+    // otherwise we ask the room for what we missed.
+    private void applyUserList(Common.UserListPayload up) {
+        if (up.isKeyframe()) {
+            if (up.getPoints() != null)     { pointsMap.clear();     pointsMap.putAll(up.getPoints()); }
+            if (up.getEliminated() != null) { eliminatedMap.clear(); eliminatedMap.putAll(up.getEliminated()); }
+            if (up.getPending() != null)    { pendingMap.clear();    pendingMap.putAll(up.getPending()); }
+            if (up.getAway() != null)       { awayMap.clear();       awayMap.putAll(up.getAway()); }
+            if (up.getSpectators() != null) { spectatorMap.clear();  spectatorMap.putAll(up.getSpectators()); }
+            userListVersion = up.getVersion();
+            resyncRequested = false;
+            return;
+        }
+        if (up.getBaseVersion() != userListVersion) {
+            if (!resyncRequested) { // one request per gap; the answer resets this
+                resyncRequested = true;
+                Common.UserListPayload req = new Common.UserListPayload();
+                req.setPayloadType(PayloadType.USER_LIST);
+                req.setVersion(userListVersion);
+                try {
+                    sendToServer(req);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+            return;
+        }
+        if (up.getPoints() != null)     pointsMap.putAll(up.getPoints());
+        if (up.getEliminated() != null) eliminatedMap.putAll(up.getEliminated());
+        if (up.getPending() != null)    pendingMap.putAll(up.getPending());
+        if (up.getAway() != null)       awayMap.putAll(up.getAway());
+        if (up.getSpectators() != null) spectatorMap.putAll(up.getSpectators());
+        if (up.getRemoved() != null) {
+            for (Long id : up.getRemoved()) {
+                pointsMap.remove(id);
+                eliminatedMap.remove(id);
+                pendingMap.remove(id);
+                awayMap.remove(id);
+                spectatorMap.remove(id);
+            }
+        }
+        userListVersion = up.getVersion();
+        resyncRequested = false;
+    }
+
+    // UCID: lm87 | Date: 2026-10-17
+    // Brief: Applies typed game control events (previously regex-parsed out of chat text).
+    private void processGameEvent(Payload payload) {
+        if (!(payload instanceof GameEventPayload)) {
+            error("Invalid payload subclass for processGameEvent");
+            return;
+        }
+        GameEventPayload ge = (GameEventPayload) payload;
+        if (ge.getEvent() == null) {
+            return;
+        }
+        switch (ge.getEvent()) {
+            case PENDING:
+                pendingMap.put(ge.getClientId(), ge.isOn());
+                break;
+            case ELIMINATED:
+                eliminatedMap.put(ge.getClientId(), ge.isOn());
+                if (ge.isOn()) pendingMap.put(ge.getClientId(), false); // eliminated can't be pending
+                break;
+            case ROUND_START:
+                roundDurationSec = ge.getValue();
+                roundEndEpochMs = System.currentTimeMillis() + (long) roundDurationSec * 1000L;
+                addEvent("Round started: " + roundDurationSec + "s");
+                uiSelectedPick = null;
+                break;
+            case COOLDOWN:
+                cooldownEnabled = ge.isOn();
+                break;
+            case EXTRA_CHOICES:
+                applyExtraChoicesFromServer(ge.isOn(),
+                        ge.getExtra() == GameEventPayload.EXTRA_MODE_LAST3 ? "LAST3" : "FULL");
+                addEvent("Extra choices: " + extraChoicesEnabled + " (" + extraChoicesMode + ")");
+                break;
+            default:
+                break;
+        }
+    }
+
     private void processReverse(Payload payload) {
         System.out.println(TextFX.colorize(payload.getMessage(), Color.PURPLE));
     }
@@ -1024,6 +1166,12 @@ if (up.getSpectators() != null) { spectatorMap.clear();  spectatorMap.putAll(up.
      // UCID: LM87 | 2025-08-09
      // Summary: Closes the out/in/socket with logs
     private void closeServerConnection() {
+        synchronized (this) {
+            if (heartbeatFuture != null) {
+                heartbeatFuture.cancel(false);
+                heartbeatFuture = null;
+            }
+        }
         try {
             if (out != null) {
                 System.out.println("Closing output stream");
@@ -0,0 +1,72 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Times Client.processMessage() on the chat/control lines a game actually produces.
+package Client;
+
+import Common.Payload;
+import Common.PayloadType;
+import Demo.Bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Feeds a fixed mix of server lines (plain chat, READY/EXTRA_CHOICES/SPECTATOR
+ * control text, round and elimination notices) through the client's message
+ * parser without a connection. The client prints every line, so System.out
+ * is swapped for a null stream while it runs; the numbers include building
+ * the colorized string but not the console write.
+ * Usage: ClientBenchmarks [filter regex] (see Demo.Bench for settings)
+ */
+public class ClientBenchmarks {
+    private static final String[] LINES = {
+            "alice#1: good game everyone",
+            "Room[arena] bob#2 joined the room",
+            "[READY] 2 1",
+            "Room[lobby] alice#1: [READY] 1 0",
+            "[EXTRA_CHOICES] 1 LAST3",
+            "[SPECTATOR] carol#3 is watching",
+            "Round 3 started. Make your /pick [r|p|s]!",
+            "alice#1 picked their choice.",
+            "Round 3 ending...",
+            "Eliminated: bob#2",
+            "dave#4 is away",
+            "Game over! Winner: alice#1",
+    };
+
+    public static void main(String[] args) throws Exception {
+        Bench bench = new Bench(args);
+        run(bench);
+        bench.summary();
+    }
+
+    public static void run(Bench bench) throws Exception {
+        Payload[] payloads = new Payload[LINES.length];
+        for (int i = 0; i < LINES.length; i++) {
+            payloads[i] = new Payload();
+            payloads[i].setPayloadType(PayloadType.MESSAGE);
+            payloads[i].setMessage(LINES[i]);
+        }
+        Client client = Client.INSTANCE;
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            bench.run("client.processMessage", "mixed", () -> {
+                for (Payload payload : payloads) {
+                    client.processMessage(payload);
+                }
+                return payloads.length;
+            });
+            for (int i = 0; i < LINES.length; i++) {
+                final Payload payload = payloads[i];
+                bench.run("client.processMessage", "line" + i, () -> {
+                    for (int n = 0; n < 50; n++) {
+                        client.processMessage(payload);
+                    }
+                    return 50;
+                });
+            }
+        } finally {
+            System.setOut(console);
+        }
+    }
+}
@@ -21,12 +21,16 @@ public class RoomsPanel extends JPanel {
     private final JButton createBtn = new JButton("Create");
     private final JButton joinBtn = new JButton("Join");
     private final JButton backBtn = new JButton("Back");
+    private final JTextField filter = new JTextField(12);
+    private final JButton moreBtn = new JButton("More");
+    private static final int PAGE_SIZE = 100;
+    // restarts on every keystroke so a search is only sent once typing pauses
+    private final javax.swing.Timer searchDelay = new javax.swing.Timer(250, e -> requestPage(0));
 
     private final Runnable onJoined;
     private final Runnable onBack;
 
-    // keep selection across refreshes; avoid fighting the user while they click
-    private volatile boolean userInteracting = false;
+    // keep selection across full list resets
     private String lastSelected = null;
 
     public RoomsPanel(Runnable onJoined, Runnable onBack) {
@@ -42,6 +46,8 @@ public class RoomsPanel extends JPanel {
         JPanel top = new JPanel(new BorderLayout());
         top.add(title, BorderLayout.WEST);
         JPanel right = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        right.add(new JLabel("Search:"));
+        right.add(filter);
         right.add(backBtn);
         top.add(right, BorderLayout.EAST);
 
@@ -55,8 +61,6 @@ public class RoomsPanel extends JPanel {
             }
         });
         list.addMouseListener(new MouseAdapter() {
-            @Override public void mousePressed(MouseEvent e) { userInteracting = true; }
-            @Override public void mouseReleased(MouseEvent e) { userInteracting = false; }
             @Override public void mouseClicked(MouseEvent e) {
                 if (e.getClickCount() == 2) {
                     doJoin();
@@ -65,6 +69,11 @@ public class RoomsPanel extends JPanel {
         });
 
         JScrollPane scroll = new JScrollPane(list);
+        JPanel center = new JPanel(new BorderLayout());
+        center.add(scroll, BorderLayout.CENTER);
+        JPanel paging = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        paging.add(moreBtn);
+        center.add(paging, BorderLayout.SOUTH);
 
         JPanel bottom = new JPanel(new FlowLayout(FlowLayout.LEFT));
         bottom.add(new JLabel("Name:"));
@@ -73,46 +82,110 @@ public class RoomsPanel extends JPanel {
         bottom.add(joinBtn);
 
         add(top, BorderLayout.NORTH);
-        add(scroll, BorderLayout.CENTER);
+        add(center, BorderLayout.CENTER);
         add(bottom, BorderLayout.SOUTH);
 
         createBtn.addActionListener(e -> doCreate());
         joinBtn.addActionListener(e -> doJoin());
         backBtn.addActionListener(e -> onBack.run());
         joinBtn.setEnabled(false); // enable when a room is selected
+        moreBtn.addActionListener(e -> requestPage(model.size()));
+        moreBtn.setEnabled(false);
+        searchDelay.setRepeats(false);
+        filter.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            @Override public void insertUpdate(javax.swing.event.DocumentEvent e) { searchDelay.restart(); }
+            @Override public void removeUpdate(javax.swing.event.DocumentEvent e) { searchDelay.restart(); }
+            @Override public void changedUpdate(javax.swing.event.DocumentEvent e) { searchDelay.restart(); }
+        });
 
-        // Refresh rooms periodically, but preserve selection and don't interrupt clicks
-        new javax.swing.Timer(800, e -> refreshFromClient()).start();
-        refreshFromClient();
+        // UCID: lm87 | Date: 2026-10-17
+        // Brief: Apply server snapshots/deltas/pages as they arrive instead of re-reading the whole list.
+        Client.INSTANCE.uiSetRoomsListener(rp -> SwingUtilities.invokeLater(() -> onRooms(rp)));
+        resetModel(Client.INSTANCE.uiGetRoomsSnapshot());
     }
 
-    private void refreshFromClient() {
-        if (userInteracting) return; // don't fight the user's click/drag
+    private String currentFilter() {
+        return filter.getText().trim();
+    }
 
-        java.util.List<String> rooms = Client.INSTANCE.uiGetRoomsSnapshot();
+    private boolean matchesFilter(String room) {
+        String f = currentFilter();
+        return f.isEmpty() || room.regionMatches(true, 0, f, 0, f.length());
+    }
 
-        // Only rewrite the model if it actually changed
-        java.util.List<String> current = new ArrayList<>();
-        for (int i = 0; i < model.size(); i++) current.add(model.get(i));
+    private void onRooms(Common.RoomsPayload rp) {
+        java.util.List<String> rooms = rp.getRooms() == null ? Collections.emptyList() : rp.getRooms();
+        switch (rp.getKind()) {
+            case Common.RoomsPayload.KIND_SNAPSHOT:
+                if (currentFilter().isEmpty()) {
+                    resetModel(rooms);
+                    moreBtn.setEnabled(rp.hasMore());
+                } else {
+                    requestPage(0); // back in the lobby with a search typed; refresh the search
+                }
+                break;
+            case Common.RoomsPayload.KIND_ADDED:
+                for (String r : rooms) {
+                    if (matchesFilter(r)) insertSorted(r);
+                }
+                break;
+            case Common.RoomsPayload.KIND_REMOVED:
+                for (String r : rooms) model.removeElement(r);
+                break;
+            case Common.RoomsPayload.KIND_PAGE: {
+                String prefix = rp.getPrefix() == null ? "" : rp.getPrefix();
+                if (!prefix.equalsIgnoreCase(currentFilter())) {
+                    return; // answer to a search the user already changed
+                }
+                if (rp.getOffset() == 0) {
+                    resetModel(rooms);
+                } else {
+                    for (String r : rooms) insertSorted(r);
+                }
+                moreBtn.setEnabled(rp.hasMore());
+                break;
+            }
+            default:
+                break;
+        }
+        joinBtn.setEnabled(list.getSelectedValue() != null);
+    }
 
-        if (!rooms.equals(current)) {
-            model.clear();
-            for (String r : rooms) model.addElement(r);
+    // the model stays sorted like the server's directory, so a delta is one binary search
+    private void insertSorted(String room) {
+        int lo = 0, hi = model.size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = String.CASE_INSENSITIVE_ORDER.compare(model.get(mid), room);
+            if (cmp == 0) return; // already listed
+            if (cmp < 0) lo = mid + 1; else hi = mid - 1;
         }
+        model.add(lo, room);
+    }
 
+    private void resetModel(java.util.List<String> rooms) {
+        String keep = lastSelected; // clear() fires the selection listener
+        model.clear();
+        for (String r : rooms) model.addElement(r);
         // Restore previous selection if it still exists
-        if (lastSelected != null) {
-            int idx = model.indexOf(lastSelected);
+        if (keep != null) {
+            int idx = model.indexOf(keep);
             if (idx >= 0) {
                 list.setSelectedIndex(idx);
                 list.ensureIndexIsVisible(idx);
             }
         }
-
-        // Enable Join only if something is selected
         joinBtn.setEnabled(list.getSelectedValue() != null);
     }
 
+    private void requestPage(int offset) {
+        try {
+            Client.INSTANCE.uiRequestRooms(currentFilter(), offset, PAGE_SIZE);
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+    }
+
     private void doCreate() {
         String name = newRoom.getText().trim();
         if (name.isEmpty()) {
@@ -0,0 +1,29 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Several room broadcasts from one tick delivered as a single frame (applied in order).
+package Common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchPayload extends Payload {
+    private static final long serialVersionUID = 1L;
+
+    private List<Payload> payloads = new ArrayList<>();
+
+    public BatchPayload() {
+        setPayloadType(PayloadType.BATCH);
+    }
+
+    public List<Payload> getPayloads() {
+        return payloads;
+    }
+
+    public void setPayloads(List<Payload> payloads) {
+        this.payloads = payloads;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BatchPayload[%s] %s", payloads == null ? 0 : payloads.size(), payloads);
+    }
+}
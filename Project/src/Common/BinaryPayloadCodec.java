@@ -0,0 +1,471 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Compact hand-written encoding of the Payload family (no reflection, no class descriptors).
+package Common;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Layout of a frame body:
+ * 
+ * <pre>
+ * byte    PayloadType ordinal (tag)
+ * byte    shape (which Payload subclass follows)
+ * varint  clientId (zig-zag, so -1 stays one byte)
+ * string  message
+ * ...     subclass fields
+ * </pre>
+ * 
+ * Strings are a varint of (UTF-8 length + 1) followed by the bytes, 0 meaning
+ * null. Maps are a varint of (size + 1), 0 meaning null, then all keys as
+ * zig-zag varints followed by the values; Boolean values are packed 8 per byte.
+ * A BATCH holds (count + 1) nested bodies, each prefixed like a string.
+ * <p>
+ * Note: The tag is always < 0x80 so it can't be mistaken for the 0xAC 0xED
+ * header of a Java serialization stream (see PayloadCodecs.decode()).
+ * </p>
+ */
+public class BinaryPayloadCodec implements PayloadCodec {
+    public static final BinaryPayloadCodec INSTANCE = new BinaryPayloadCodec();
+
+    private static final PayloadType[] TYPES = PayloadType.values();
+
+    // shapes
+    private static final byte BASE = 0;
+    private static final byte CONNECTION = 1;
+    private static final byte POINTS = 2;
+    private static final byte USER_LIST = 3;
+    private static final byte ROOMS = 4;
+    private static final byte GAME_EVENT = 5;
+    private static final byte BATCH = 6;
+    private static final byte ROSTER = 7;
+
+    private static final GameEvent[] EVENTS = GameEvent.values();
+
+    @Override
+    public byte[] encode(Payload payload) throws IOException {
+        Writer w = new Writer();
+        w.writeByte(payload.getPayloadType() == null ? 0xFF : payload.getPayloadType().ordinal());
+        if (payload instanceof BatchPayload) {
+            writeHeader(w, BATCH, payload);
+            List<Payload> items = ((BatchPayload) payload).getPayloads();
+            w.writeVarLong(items == null ? 0 : items.size() + 1L);
+            if (items != null) {
+                for (Payload item : items) {
+                    w.writeBytes(encode(item)); // length-prefixed nested body
+                }
+            }
+        } else if (payload instanceof RosterPayload) {
+            RosterPayload roster = (RosterPayload) payload;
+            writeHeader(w, ROSTER, payload);
+            List<Long> ids = roster.getClientIds();
+            List<String> names = roster.getClientNames();
+            w.writeVarLong(ids.size() + 1L);
+            for (int i = 0; i < ids.size(); i++) {
+                w.writeZigZag(ids.get(i));
+                w.writeString(names.get(i));
+            }
+        } else if (payload instanceof GameEventPayload) {
+            GameEventPayload ge = (GameEventPayload) payload;
+            writeHeader(w, GAME_EVENT, payload);
+            w.writeByte(ge.getEvent() == null ? 0xFF : ge.getEvent().ordinal());
+            w.writeZigZag(ge.getValue());
+            w.writeZigZag(ge.getExtra());
+        } else if (payload instanceof UserListPayload) {
+            UserListPayload up = (UserListPayload) payload;
+            writeHeader(w, USER_LIST, payload);
+            w.writeIntMap(up.getPoints());
+            w.writeFlagMap(up.getEliminated());
+            w.writeFlagMap(up.getPending());
+            w.writeFlagMap(up.getAway());
+            w.writeFlagMap(up.getSpectators());
+            w.writeByte(up.isKeyframe() ? 1 : 0);
+            w.writeVarLong(up.getVersion());
+            w.writeVarLong(up.getBaseVersion());
+            List<Long> removed = up.getRemoved();
+            w.writeVarLong(removed == null ? 0 : removed.size() + 1L);
+            if (removed != null) {
+                for (Long id : removed) {
+                    w.writeZigZag(id);
+                }
+            }
+        } else if (payload instanceof PointsPayload) {
+            writeHeader(w, POINTS, payload);
+            w.writeIntMap(((PointsPayload) payload).getPointsByClientId());
+        } else if (payload instanceof RoomsPayload) {
+            RoomsPayload rp = (RoomsPayload) payload;
+            writeHeader(w, ROOMS, payload);
+            w.writeByte(rp.getKind() | (rp.hasMore() ? 0x80 : 0)); // high bit = more
+            w.writeString(rp.getPrefix());
+            w.writeVarLong(rp.getOffset());
+            w.writeVarLong(rp.getLimit());
+            List<String> rooms = rp.getRooms();
+            w.writeVarLong(rooms == null ? 0 : rooms.size() + 1L);
+            if (rooms != null) {
+                for (String room : rooms) {
+                    w.writeString(room);
+                }
+            }
+        } else if (payload instanceof ConnectionPayload) {
+            ConnectionPayload cp = (ConnectionPayload) payload;
+            writeHeader(w, CONNECTION, payload);
+            w.writeString(cp.getClientName());
+            w.writeString(cp.getCodecs());
+        } else {
+            writeHeader(w, BASE, payload);
+        }
+        return w.toByteArray();
+    }
+
+    private void writeHeader(Writer w, byte shape, Payload payload) {
+        w.writeByte(shape);
+        w.writeZigZag(payload.getClientId());
+        w.writeString(payload.getMessage());
+    }
+
+    @Override
+    public Payload decode(byte[] data, int offset, int length) throws IOException {
+        return decode(data, offset, length, 0);
+    }
+
+    // depth counts enclosing batches; the server never nests them, so a nested one is rejected
+    private Payload decode(byte[] data, int offset, int length, int depth) throws IOException {
+        Reader r = new Reader(data, offset, length);
+        int tag = r.readByte();
+        byte shape = (byte) r.readByte();
+        Payload payload;
+        switch (shape) {
+            case BASE:
+                payload = new Payload();
+                break;
+            case CONNECTION:
+                payload = new ConnectionPayload();
+                break;
+            case POINTS:
+                payload = new PointsPayload();
+                break;
+            case USER_LIST:
+                payload = new UserListPayload();
+                break;
+            case ROOMS:
+                payload = new RoomsPayload();
+                break;
+            case GAME_EVENT:
+                payload = new GameEventPayload();
+                break;
+            case BATCH:
+                payload = new BatchPayload();
+                break;
+            case ROSTER:
+                payload = new RosterPayload();
+                break;
+            default:
+                throw new IOException("Unknown payload shape " + shape);
+        }
+        if (tag != 0xFF) {
+            if (tag >= TYPES.length) {
+                throw new IOException("Unknown payload type tag " + tag);
+            }
+            payload.setPayloadType(TYPES[tag]);
+        }
+        payload.setClientId(r.readZigZag());
+        payload.setMessage(r.readString());
+        switch (shape) {
+            case CONNECTION: {
+                ConnectionPayload cp = (ConnectionPayload) payload;
+                cp.setClientName(r.readString());
+                cp.setCodecs(r.readString());
+                break;
+            }
+            case POINTS:
+                ((PointsPayload) payload).setPointsByClientId(r.readIntMap());
+                break;
+            case GAME_EVENT: {
+                GameEventPayload ge = (GameEventPayload) payload;
+                int event = r.readByte();
+                if (event != 0xFF) {
+                    if (event >= EVENTS.length) {
+                        throw new IOException("Unknown game event " + event);
+                    }
+                    ge.setEvent(EVENTS[event]);
+                }
+                ge.setValue((int) r.readZigZag());
+                ge.setExtra((int) r.readZigZag());
+                break;
+            }
+            case USER_LIST: {
+                UserListPayload up = (UserListPayload) payload;
+                up.setPoints(r.readIntMap());
+                up.setEliminated(r.readFlagMap());
+                up.setPending(r.readFlagMap());
+                up.setAway(r.readFlagMap());
+                up.setSpectators(r.readFlagMap());
+                up.setKeyframe(r.readByte() != 0);
+                up.setVersion(r.readVarLong());
+                up.setBaseVersion(r.readVarLong());
+                int removedCount = r.readCount();
+                if (removedCount >= 0) {
+                    List<Long> removed = new ArrayList<>(removedCount);
+                    for (int i = 0; i < removedCount; i++) {
+                        removed.add(r.readZigZag());
+                    }
+                    up.setRemoved(removed);
+                }
+                break;
+            }
+            case ROSTER: {
+                RosterPayload roster = (RosterPayload) payload;
+                int count = r.readCount();
+                for (int i = 0; i < count; i++) {
+                    roster.add(r.readZigZag(), r.readString());
+                }
+                break;
+            }
+            case BATCH: {
+                if (depth > 0) {
+                    throw new IOException("Nested batch");
+                }
+                int count = r.readCount();
+                if (count >= 0) {
+                    List<Payload> items = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        int len = r.readCount();
+                        items.add(decode(data, r.skip(len), len, depth + 1));
+                    }
+                    ((BatchPayload) payload).setPayloads(items);
+                }
+                break;
+            }
+            case ROOMS: {
+                RoomsPayload rp = (RoomsPayload) payload;
+                int kind = r.readByte();
+                rp.setKind(kind & 0x7F);
+                rp.setMore((kind & 0x80) != 0);
+                rp.setPrefix(r.readString());
+                rp.setOffset((int) r.readVarLong());
+                rp.setLimit((int) r.readVarLong());
+                int count = r.readCount();
+                if (count >= 0) {
+                    List<String> rooms = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        rooms.add(r.readString());
+                    }
+                    rp.setRooms(rooms);
+                }
+                break;
+            }
+            default:
+                break;
+        }
+        return payload;
+    }
+
+    /**
+     * Growable byte buffer with the primitive writers used above
+     */
+    static class Writer {
+        private byte[] buf = new byte[64];
+        private int size = 0;
+
+        private void ensure(int extra) {
+            if (size + extra > buf.length) {
+                byte[] bigger = new byte[Math.max(buf.length * 2, size + extra)];
+                System.arraycopy(buf, 0, bigger, 0, size);
+                buf = bigger;
+            }
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[size++] = (byte) b;
+        }
+
+        void writeVarLong(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[size++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[size++] = (byte) v;
+        }
+
+        void writeBytes(byte[] bytes) {
+            writeVarLong(bytes.length + 1L); // same length+1 convention as strings
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void writeZigZag(long v) {
+            writeVarLong((v << 1) ^ (v >> 63));
+        }
+
+        void writeString(String s) {
+            if (s == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length + 1L);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, buf, size, utf8.length);
+            size += utf8.length;
+        }
+
+        void writeIntMap(Map<Long, Integer> map) {
+            if (map == null) {
+                writeVarLong(0);
+                return;
+            }
+            writeVarLong(map.size() + 1L);
+            for (Map.Entry<Long, Integer> e : map.entrySet()) {
+                writeZigZag(e.getKey());
+                writeZigZag(e.getValue() == null ? 0 : e.getValue());
+            }
+        }
+
+        void writeFlagMap(Map<Long, Boolean> map) {
+            if (map == null) {
+                writeVarLong(0);
+                return;
+            }
+            int count = map.size();
+            writeVarLong(count + 1L);
+            for (Long key : map.keySet()) {
+                writeZigZag(key);
+            }
+            int bits = 0;
+            int used = 0;
+            for (Boolean value : map.values()) {
+                if (Boolean.TRUE.equals(value)) {
+                    bits |= 1 << used;
+                }
+                if (++used == 8) {
+                    writeByte(bits);
+                    bits = 0;
+                    used = 0;
+                }
+            }
+            if (used > 0) {
+                writeByte(bits);
+            }
+        }
+
+        byte[] toByteArray() {
+            byte[] out = new byte[size];
+            System.arraycopy(buf, 0, out, 0, size);
+            return out;
+        }
+    }
+
+    /**
+     * Bounds-checked reader over a frame body
+     */
+    static class Reader {
+        private final byte[] data;
+        private int pos;
+        private final int end;
+
+        Reader(byte[] data, int offset, int length) {
+            this.data = data;
+            this.pos = offset;
+            this.end = offset + length;
+        }
+
+        int readByte() throws IOException {
+            if (pos >= end) {
+                throw new IOException("Truncated frame");
+            }
+            return data[pos++] & 0xFF;
+        }
+
+        long readVarLong() throws IOException {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+
+        long readZigZag() throws IOException {
+            long v = readVarLong();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        /**
+         * @return element count, or -1 for a null collection
+         */
+        int readCount() throws IOException {
+            long count = readVarLong() - 1;
+            if (count > end - pos) { // every element takes at least one byte
+                throw new IOException("Collection size " + count + " exceeds frame");
+            }
+            return (int) count;
+        }
+
+        /**
+         * Skips length bytes (already bounds-checked by readCount())
+         *
+         * @return position of the first skipped byte
+         */
+        int skip(int length) throws IOException {
+            if (length < 0) {
+                throw new IOException("Missing nested payload");
+            }
+            int start = pos;
+            pos += length;
+            return start;
+        }
+
+        String readString() throws IOException {
+            int length = readCount();
+            if (length < 0) {
+                return null;
+            }
+            String s = new String(data, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return s;
+        }
+
+        Map<Long, Integer> readIntMap() throws IOException {
+            int count = readCount();
+            if (count < 0) {
+                return null;
+            }
+            Map<Long, Integer> map = new LinkedHashMap<>(Math.max(4, count * 2));
+            for (int i = 0; i < count; i++) {
+                long key = readZigZag();
+                map.put(key, (int) readZigZag());
+            }
+            return map;
+        }
+
+        Map<Long, Boolean> readFlagMap() throws IOException {
+            int count = readCount();
+            if (count < 0) {
+                return null;
+            }
+            long[] keys = new long[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = readZigZag();
+            }
+            Map<Long, Boolean> map = new LinkedHashMap<>(Math.max(4, count * 2));
+            int bits = 0;
+            for (int i = 0; i < count; i++) {
+                if ((i & 7) == 0) {
+                    bits = readByte();
+                }
+                map.put(keys[i], (bits & (1 << (i & 7))) != 0);
+            }
+            return map;
+        }
+    }
+}
@@ -4,12 +4,17 @@ package Common;
 
 public class ConnectionPayload extends Payload {
     private String clientName;
+    // CLIENT_CONNECT: codecs the client supports; CLIENT_ID: codec the server chose
+    private String codecs;
 
     public String getClientName() { return clientName; }
     public void setClientName(String clientName) { this.clientName = clientName; }
 
+    public String getCodecs() { return codecs; }
+    public void setCodecs(String codecs) { this.codecs = codecs; }
+
     @Override
     public String toString() {
         return super.toString() + String.format(" clientName=\"%s\"", clientName);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,70 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Picks the kind of thread that runs a blocking connection loop (platform or virtual).
+package Common;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Virtual threads only exist on Java 21+, while the project still builds on
+ * Java 17, so they're looked up reflectively. On an older runtime VIRTUAL falls
+ * back to platform threads and isVirtualAvailable() reports false.
+ */
+public abstract class ConnectionThreads {
+
+    public enum Mode {
+        PLATFORM, VIRTUAL
+    }
+
+    /**
+     * @return true if this JVM can create virtual threads
+     */
+    public static boolean isVirtualAvailable() {
+        ExecutorService probe = newVirtualExecutor();
+        if (probe == null) {
+            return false;
+        }
+        probe.shutdown();
+        return true;
+    }
+
+    /**
+     * Creates an executor that runs every submitted task on its own thread
+     * 
+     * @param mode       requested thread kind
+     * @param namePrefix used for platform thread names
+     * @return executor (virtual if requested and supported)
+     */
+    public static ExecutorService newPerTaskExecutor(Mode mode, String namePrefix) {
+        if (mode == Mode.VIRTUAL) {
+            ExecutorService virtual = newVirtualExecutor();
+            if (virtual != null) {
+                return virtual;
+            }
+            System.out.println(TextFX.colorize(
+                    "Virtual threads aren't available on Java " + Runtime.version().feature()
+                            + ", using platform threads",
+                    TextFX.Color.YELLOW));
+        }
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(r, namePrefix + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        return Executors.newCachedThreadPool(factory);
+    }
+
+    private static ExecutorService newVirtualExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // not on this JDK (or preview not enabled)
+            return null;
+        }
+    }
+}
@@ -4,4 +4,10 @@ public abstract class Constants {
     final public static String COMMAND_TRIGGER = "/";
     final public static String SINGLE_SPACE = " ";
     final public static long DEFAULT_CLIENT_ID = -1;
+    final public static int MAX_FRAME_BYTES = 1 << 20; // 1MB, anything larger is treated as a broken stream
+    // connection liveness (server enforces, client keeps it alive with HEARTBEAT)
+    final public static long HANDSHAKE_TIMEOUT_MS = 3000;
+    final public static long HEARTBEAT_INTERVAL_MS = 15000;
+    final public static long IDLE_TIMEOUT_MS = 45000; // ~3 missed heartbeats
+    final public static long AUTO_AWAY_MS = 120000; // no real action (heartbeats don't count) while in a GameRoom
 }
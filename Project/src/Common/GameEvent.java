@@ -0,0 +1,11 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Codes for game control events sent in a GameEventPayload (replaces "[PENDING] id 1" style chat lines).
+package Common;
+
+public enum GameEvent {
+    PENDING, // clientId = player, value = 1 waiting on a pick / 0 picked
+    ELIMINATED, // clientId = player, value = 1 eliminated / 0 back in
+    ROUND_START, // value = round length in seconds
+    COOLDOWN, // value = 1 enabled / 0 disabled
+    EXTRA_CHOICES // value = 1 enabled / 0 disabled, extra = EXTRA_MODE_*
+}
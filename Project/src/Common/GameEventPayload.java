@@ -0,0 +1,46 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Typed game control event (pending/eliminated flags, round start, settings) with numeric fields.
+package Common;
+
+public class GameEventPayload extends Payload {
+    private static final long serialVersionUID = 1L;
+
+    public static final int EXTRA_MODE_FULL = 0;
+    public static final int EXTRA_MODE_LAST3 = 1;
+
+    private GameEvent event;
+    private int value;
+    private int extra;
+
+    public GameEventPayload() {
+        setPayloadType(PayloadType.GAME_EVENT);
+    }
+
+    /**
+     * @param event
+     * @param clientId subject of the event (DEFAULT_CLIENT_ID for room-wide events)
+     * @param value
+     */
+    public GameEventPayload(GameEvent event, long clientId, int value) {
+        this();
+        this.event = event;
+        this.value = value;
+        setClientId(clientId);
+    }
+
+    public GameEvent getEvent() { return event; }
+    public void setEvent(GameEvent event) { this.event = event; }
+
+    public int getValue() { return value; }
+    public void setValue(int value) { this.value = value; }
+
+    public int getExtra() { return extra; }
+    public void setExtra(int extra) { this.extra = extra; }
+
+    public boolean isOn() { return value != 0; }
+
+    @Override
+    public String toString() {
+        return super.toString() + String.format(" event=%s value=%s extra=%s", event, value, extra);
+    }
+}
@@ -0,0 +1,268 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Leveled async logger; callers hand raw arguments to a lock-free ring and a writer thread formats them.
+package Common;
+
+import Common.TextFX.Color;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replaces colorize + System.out.println on the server. The level is checked
+ * before anything is built, so a disabled line costs one comparison. An
+ * enabled line copies its format string and (up to three) argument references
+ * into a preallocated slot of a bounded multi-producer ring; the background
+ * "LogWriter" thread does the String.format, toString() and console write. A
+ * full ring drops the line (counted) instead of blocking the caller.
+ * <p>
+ * Settings: -Dlog.level=TRACE|DEBUG|INFO|WARN|ERROR|OFF (default INFO),
+ * -Dlog.buffer=slots (default 8192), -Dlog.color=auto|always|never (auto
+ * colors only when stdout is a terminal).
+ * </p>
+ * <p>
+ * Note: Arguments are formatted later on another thread; pass values whose
+ * toString() is safe to call then (immutable values, sent payloads).
+ * </p>
+ */
+public final class Log {
+    public enum Level { TRACE, DEBUG, INFO, WARN, ERROR, OFF }
+
+    private static volatile int threshold = parseLevel(System.getProperty("log.level", "INFO")).ordinal();
+    private static final boolean COLOR;
+    private static final int MASK;
+    private static final Record[] RING;
+    private static final AtomicLong TAIL = new AtomicLong(); // next slot to claim (producers)
+    private static final AtomicLong DROPPED = new AtomicLong();
+    private static long head; // next slot to write (writer thread only)
+    private static volatile boolean writerParked;
+    private static final Thread WRITER;
+
+    static {
+        String color = System.getProperty("log.color", "auto");
+        COLOR = color.equalsIgnoreCase("always") || (!color.equalsIgnoreCase("never") && System.console() != null);
+        int capacity = Integer.highestOneBit(Math.max(64, Integer.getInteger("log.buffer", 8192) - 1) << 1);
+        MASK = capacity - 1;
+        RING = new Record[capacity];
+        for (int i = 0; i < capacity; i++) {
+            RING[i] = new Record(i);
+        }
+        WRITER = new Thread(Log::writeLoop, "LogWriter");
+        WRITER.setDaemon(true);
+        WRITER.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::flush, "LogFlush"));
+    }
+
+    // one preallocated slot; seq says whose turn it is (Vyukov bounded queue)
+    private static final class Record {
+        volatile long seq;
+        Level level;
+        Color color;
+        String source;
+        Object sourceId;
+        String format;
+        int argc;
+        Object a0, a1, a2;
+        Throwable error;
+
+        Record(long seq) {
+            this.seq = seq;
+        }
+    }
+
+    private Log() {
+    }
+
+    public static boolean isEnabled(Level level) {
+        return level.ordinal() >= threshold;
+    }
+
+    public static void setLevel(Level level) {
+        threshold = level.ordinal();
+    }
+
+    public static Level getLevel() {
+        return Level.values()[threshold];
+    }
+
+    /**
+     * @return lines dropped because the ring was full
+     */
+    public static long getDropped() {
+        return DROPPED.get();
+    }
+
+    // ----- Logging (source is printed as "source[sourceId]: " or "source: ") -----
+
+    public static void log(Level level, Color color, String source, Object sourceId, String message) {
+        if (isEnabled(level)) {
+            publish(level, color, source, sourceId, message, 0, null, null, null, null);
+        }
+    }
+
+    /**
+     * @param format String.format pattern, applied on the writer thread
+     */
+    public static void log(Level level, Color color, String source, Object sourceId, String format, Object a0) {
+        if (isEnabled(level)) {
+            publish(level, color, source, sourceId, format, 1, a0, null, null, null);
+        }
+    }
+
+    public static void log(Level level, Color color, String source, Object sourceId, String format, Object a0,
+            Object a1) {
+        if (isEnabled(level)) {
+            publish(level, color, source, sourceId, format, 2, a0, a1, null, null);
+        }
+    }
+
+    public static void log(Level level, Color color, String source, Object sourceId, String format, Object a0,
+            Object a1, Object a2) {
+        if (isEnabled(level)) {
+            publish(level, color, source, sourceId, format, 3, a0, a1, a2, null);
+        }
+    }
+
+    /**
+     * Logs the message and the error's stack trace
+     */
+    public static void error(Color color, String source, Object sourceId, String message, Throwable error) {
+        if (isEnabled(Level.ERROR)) {
+            publish(Level.ERROR, color, source, sourceId, message, 0, null, null, null, error);
+        }
+    }
+
+    private static void publish(Level level, Color color, String source, Object sourceId, String format,
+            int argc, Object a0, Object a1, Object a2, Throwable error) {
+        Record r;
+        long pos;
+        while (true) {
+            pos = TAIL.get();
+            r = RING[(int) (pos & MASK)];
+            long dif = r.seq - pos;
+            if (dif == 0) {
+                if (TAIL.compareAndSet(pos, pos + 1)) {
+                    break;
+                }
+            } else if (dif < 0) {
+                DROPPED.incrementAndGet(); // writer is a whole ring behind
+                return;
+            }
+            // else another producer claimed it first; retry
+        }
+        r.level = level;
+        r.color = color;
+        r.source = source;
+        r.sourceId = sourceId;
+        r.format = format;
+        r.argc = argc;
+        r.a0 = a0;
+        r.a1 = a1;
+        r.a2 = a2;
+        r.error = error;
+        r.seq = pos + 1; // publish to the writer
+        if (writerParked) {
+            LockSupport.unpark(WRITER);
+        }
+    }
+
+    // ----- Writer -----
+
+    private static void writeLoop() {
+        while (true) {
+            if (!drain()) {
+                writerParked = true;
+                // re-check after announcing so a publish between drain() and park isn't missed
+                if (!ready()) {
+                    LockSupport.parkNanos(100_000_000L);
+                }
+                writerParked = false;
+            }
+        }
+    }
+
+    private static boolean ready() {
+        return RING[(int) (head & MASK)].seq == head + 1;
+    }
+
+    /**
+     * Writes everything published so far
+     *
+     * @return false if there was nothing to write
+     */
+    private static synchronized boolean drain() {
+        boolean wrote = false;
+        boolean out = false;
+        boolean err = false;
+        while (true) {
+            Record r = RING[(int) (head & MASK)];
+            if (r.seq != head + 1) {
+                break;
+            }
+            PrintStream stream = r.level.ordinal() >= Level.WARN.ordinal() ? System.err : System.out;
+            stream.println(render(r));
+            if (r.error != null) {
+                r.error.printStackTrace(stream);
+            }
+            out |= stream == System.out;
+            err |= stream == System.err;
+            r.sourceId = r.a0 = r.a1 = r.a2 = null; // don't keep payloads alive
+            r.error = null;
+            r.seq = head + RING.length; // free for the producer one lap ahead
+            head++;
+            wrote = true;
+        }
+        if (out) System.out.flush();
+        if (err) System.err.flush();
+        return wrote;
+    }
+
+    private static String render(Record r) {
+        String message;
+        try {
+            switch (r.argc) {
+                case 0: message = r.format; break;
+                case 1: message = String.format(r.format, r.a0); break;
+                case 2: message = String.format(r.format, r.a0, r.a1); break;
+                default: message = String.format(r.format, r.a0, r.a1, r.a2); break;
+            }
+        } catch (RuntimeException e) {
+            message = r.format + " (format failed: " + e + ")";
+        }
+        StringBuilder sb = new StringBuilder(message.length() + 32);
+        if (COLOR && r.color != null) {
+            sb.append(r.color.getCode());
+        }
+        if (r.source != null) {
+            sb.append(r.source);
+            if (r.sourceId != null) {
+                sb.append('[').append(r.sourceId).append(']');
+            }
+            sb.append(": ");
+        }
+        sb.append(message);
+        if (COLOR && r.color != null) {
+            sb.append(TextFX.RESET);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes everything queued so far from the calling thread (shutdown, tests)
+     */
+    public static void flush() {
+        drain();
+        long dropped = DROPPED.getAndSet(0);
+        if (dropped > 0) {
+            System.err.println("Log: dropped " + dropped + " lines (ring full)");
+        }
+    }
+
+    private static Level parseLevel(String name) {
+        try {
+            return Level.valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Level.INFO;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Turns a Payload into the bytes of a single frame body and back again.
+package Common;
+
+import java.io.IOException;
+
+/**
+ * Encodes/decodes one Payload per frame. Framing (the length prefix) is handled
+ * by PayloadFraming so the same codec works for blocking streams and NIO
+ * buffers.
+ */
+public interface PayloadCodec {
+
+    /**
+     * Encodes the payload into a standalone frame body
+     * 
+     * @param payload
+     * @return encoded bytes (never null)
+     * @throws IOException
+     */
+    byte[] encode(Payload payload) throws IOException;
+
+    /**
+     * Decodes a frame body back into a Payload
+     * 
+     * @param data   buffer holding the frame body
+     * @param offset start of the body
+     * @param length number of body bytes
+     * @return decoded payload
+     * @throws IOException
+     */
+    Payload decode(byte[] data, int offset, int length) throws IOException;
+}
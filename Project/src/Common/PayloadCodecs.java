@@ -0,0 +1,77 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Codec registry + negotiation helpers used during the CLIENT_CONNECT handshake.
+package Common;
+
+import java.io.IOException;
+
+/**
+ * Negotiation: the client lists the codecs it understands in
+ * ConnectionPayload.codecs on CLIENT_CONNECT, the server answers with the one
+ * it picked on CLIENT_ID and both sides switch their outbound codec. Inbound
+ * frames are always decoded by sniffing the first bytes, so frames that were
+ * already in flight during the switch still decode.
+ */
+public abstract class PayloadCodecs {
+    public static final String BINARY = "binary";
+    public static final String JAVA = "java";
+    /**
+     * Everything this build understands, most preferred first
+     */
+    public static final String SUPPORTED = BINARY + "," + JAVA;
+
+    private static final int JAVA_STREAM_MAGIC_0 = 0xAC;
+    private static final int JAVA_STREAM_MAGIC_1 = 0xED;
+
+    /**
+     * @param name codec name (null/unknown falls back to Java serialization)
+     * @return codec instance
+     */
+    public static PayloadCodec forName(String name) {
+        return BINARY.equalsIgnoreCase(name) ? BinaryPayloadCodec.INSTANCE : SerializedPayloadCodec.INSTANCE;
+    }
+
+    /**
+     * @param codec
+     * @return the name announced on the wire for this codec
+     */
+    public static String nameOf(PayloadCodec codec) {
+        return codec instanceof BinaryPayloadCodec ? BINARY : JAVA;
+    }
+
+    /**
+     * Picks our most preferred codec that the peer also offered
+     * 
+     * @param offered comma separated list from the peer (null for old clients)
+     * @return chosen codec name
+     */
+    public static String choose(String offered) {
+        if (offered == null) {
+            return JAVA;
+        }
+        for (String ours : SUPPORTED.split(",")) {
+            for (String theirs : offered.split(",")) {
+                if (ours.equalsIgnoreCase(theirs.trim())) {
+                    return ours;
+                }
+            }
+        }
+        return JAVA;
+    }
+
+    /**
+     * Decodes a frame body with whichever codec produced it
+     * 
+     * @param data
+     * @param offset
+     * @param length
+     * @return decoded payload
+     * @throws IOException
+     */
+    public static Payload decode(byte[] data, int offset, int length) throws IOException {
+        if (length >= 2 && (data[offset] & 0xFF) == JAVA_STREAM_MAGIC_0
+                && (data[offset + 1] & 0xFF) == JAVA_STREAM_MAGIC_1) {
+            return SerializedPayloadCodec.INSTANCE.decode(data, offset, length);
+        }
+        return BinaryPayloadCodec.INSTANCE.decode(data, offset, length);
+    }
+}
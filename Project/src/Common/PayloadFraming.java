@@ -0,0 +1,65 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Length-prefixed framing shared by the Client, the threaded server and the NIO server.
+package Common;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Wire format: a 4 byte big-endian length followed by that many bytes of
+ * codec output.
+ */
+public abstract class PayloadFraming {
+    public static final int HEADER_BYTES = 4;
+
+    /**
+     * Writes one frame. Caller is responsible for flushing.
+     * 
+     * @param out
+     * @param body
+     * @throws IOException
+     */
+    public static void writeFrame(DataOutputStream out, byte[] body) throws IOException {
+        out.writeInt(body.length);
+        out.write(body);
+    }
+
+    /**
+     * Blocks until a whole frame body is read
+     * 
+     * @param in
+     * @return frame body
+     * @throws IOException if the stream ends or the frame is too large
+     */
+    public static byte[] readFrame(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        checkLength(length);
+        byte[] body = new byte[length];
+        in.readFully(body);
+        return body;
+    }
+
+    /**
+     * Wraps an encoded body with its length header
+     * 
+     * @param body
+     * @return header + body in a single array
+     */
+    public static byte[] toFrame(byte[] body) {
+        byte[] frame = new byte[HEADER_BYTES + body.length];
+        int length = body.length;
+        frame[0] = (byte) (length >>> 24);
+        frame[1] = (byte) (length >>> 16);
+        frame[2] = (byte) (length >>> 8);
+        frame[3] = (byte) length;
+        System.arraycopy(body, 0, frame, HEADER_BYTES, length);
+        return frame;
+    }
+
+    public static void checkLength(int length) throws IOException {
+        if (length < 0 || length > Constants.MAX_FRAME_BYTES) {
+            throw new IOException("Invalid frame length " + length);
+        }
+    }
+}
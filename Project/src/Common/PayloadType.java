@@ -20,5 +20,9 @@ public enum PayloadType {
     START,
     USER_LIST,
     ROOMS_SYNC, 
-    GAME_SETTING
+    GAME_SETTING,
+    GAME_EVENT, // typed game control event (GameEventPayload); keep new types at the end, binary tags are ordinals
+    HEARTBEAT, // client keep-alive, no body
+    BATCH, // BatchPayload: a room tick's broadcasts in one frame
+    ROSTER // RosterPayload: full member list for a client that just joined a room
 }
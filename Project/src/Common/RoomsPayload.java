@@ -3,15 +3,43 @@ package Common;
 import java.io.Serializable;
 import java.util.List;
 
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Room list traffic; a full SNAPSHOT, ADDED/REMOVED deltas, or a PAGE answering a client request.
 public class RoomsPayload extends Payload implements Serializable {
     private static final long serialVersionUID = 1L;
+    public static final int KIND_SNAPSHOT = 0; // replaces the client's list (first page of it)
+    public static final int KIND_ADDED = 1;
+    public static final int KIND_REMOVED = 2;
+    public static final int KIND_PAGE = 3; // client request (rooms null) or the server's answer
+
     private java.util.List<String> rooms;
+    private int kind = KIND_SNAPSHOT;
+    private String prefix; // name filter for PAGE (null/empty = all)
+    private int offset; // PAGE start within the filtered, sorted list
+    private int limit; // PAGE size requested
+    private boolean more; // more rooms follow after this snapshot/page
 
     public void setRooms(java.util.List<String> rooms) { this.rooms = rooms; }
     public java.util.List<String> getRooms() { return rooms; }
 
+    public int getKind() { return kind; }
+    public void setKind(int kind) { this.kind = kind; }
+
+    public String getPrefix() { return prefix; }
+    public void setPrefix(String prefix) { this.prefix = prefix; }
+
+    public int getOffset() { return offset; }
+    public void setOffset(int offset) { this.offset = offset; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+
+    public boolean hasMore() { return more; }
+    public void setMore(boolean more) { this.more = more; }
+
     @Override
     public String toString() {
-        return "RoomsPayload{rooms=" + rooms + "}";
+        return "RoomsPayload{kind=" + kind + ", prefix=" + prefix + ", offset=" + offset + ", more=" + more
+                + ", rooms=" + rooms + "}";
     }
 }
@@ -0,0 +1,44 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Everyone in a room (id + name) in one payload; sent to a client when it joins.
+package Common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RosterPayload extends Payload {
+    private static final long serialVersionUID = 1L;
+
+    // parallel lists: clientNames.get(i) belongs to clientIds.get(i)
+    private List<Long> clientIds = new ArrayList<>();
+    private List<String> clientNames = new ArrayList<>();
+
+    public RosterPayload() {
+        setPayloadType(PayloadType.ROSTER);
+    }
+
+    public void add(long clientId, String clientName) {
+        clientIds.add(clientId);
+        clientNames.add(clientName);
+    }
+
+    public List<Long> getClientIds() {
+        return clientIds;
+    }
+
+    public void setClientIds(List<Long> clientIds) {
+        this.clientIds = clientIds;
+    }
+
+    public List<String> getClientNames() {
+        return clientNames;
+    }
+
+    public void setClientNames(List<String> clientNames) {
+        this.clientNames = clientNames;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RosterPayload[%s] %s %s", clientIds.size(), clientIds, clientNames);
+    }
+}
@@ -0,0 +1,35 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: PayloadCodec backed by standard Java serialization (one object stream per frame).
+package Common;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * Default codec. Each frame carries its own serialization stream header so
+ * frames can be decoded independently of each other (required for NIO reads).
+ */
+public class SerializedPayloadCodec implements PayloadCodec {
+    public static final SerializedPayloadCodec INSTANCE = new SerializedPayloadCodec();
+
+    @Override
+    public byte[] encode(Payload payload) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(payload);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Payload decode(byte[] data, int offset, int length) throws IOException {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data, offset, length))) {
+            return (Payload) ois.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Frame did not contain a Payload", e);
+        }
+    }
+}
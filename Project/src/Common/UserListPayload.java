@@ -3,9 +3,17 @@ package Common;
 import java.io.Serializable;
 import java.util.Map;
 
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Room member state. A keyframe carries every map in full; a delta (keyframe=false) only
+// the entries that changed since baseVersion (null map = unchanged) plus ids that left.
 public class UserListPayload extends Payload implements Serializable {
     private static final long serialVersionUID = 1L;
 
+    private long version;
+    private long baseVersion;
+    private boolean keyframe = true;
+    private java.util.List<Long> removed;
+
     private Map<Long,Integer> points;
     private Map<Long,Boolean> eliminated;
     private Map<Long,Boolean> pending;
@@ -26,8 +34,19 @@ public class UserListPayload extends Payload implements Serializable {
     
     public Map<Long,Boolean> getSpectators() { return spectators; }
 
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    public long getBaseVersion() { return baseVersion; }
+    public void setBaseVersion(long baseVersion) { this.baseVersion = baseVersion; }
+    public boolean isKeyframe() { return keyframe; }
+    public void setKeyframe(boolean keyframe) { this.keyframe = keyframe; }
+    public java.util.List<Long> getRemoved() { return removed; }
+    public void setRemoved(java.util.List<Long> removed) { this.removed = removed; }
+
     @Override
     public String toString() {
-        return "UserListPayload{points=" + points + ", eliminated=" + eliminated + ", pending=" + pending + ", away=" + away + "}";
+        return "UserListPayload{" + (keyframe ? "keyframe" : "delta " + baseVersion + "->") + " v" + version
+                + ", points=" + points + ", eliminated=" + eliminated + ", pending=" + pending + ", away=" + away
+                + (removed != null ? ", removed=" + removed : "") + "}";
     }
 }
@@ -0,0 +1,164 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Tiny JMH-style runner (warm-up, timed iterations, blackhole) for the hot-path benchmark mains.
+package Demo;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Each benchmark is a batch of operations; the runner repeats the batch until
+ * an iteration's time is up, first for the warm-up iterations (discarded) and
+ * then for the measured ones, and prints ns/op and ops/s with the spread
+ * across iterations. Results are only comparable on the same machine and JVM
+ * flags, which is all they are for: before/after a change.
+ * <p>
+ * Settings: -Dbench.warmup=iterations (default 2), -Dbench.iterations=N
+ * (default 3), -Dbench.time=ms per iteration (default 300). A main's first
+ * argument, if any, is a regex; only benchmarks whose "name param" contains a
+ * match run.
+ * </p>
+ */
+public final class Bench {
+    /**
+     * One batch of benchmark operations
+     */
+    public interface Batch {
+        /**
+         * @return operations performed (what ns/op divides by)
+         */
+        long run() throws Exception;
+    }
+
+    /**
+     * One operation whose setup must not count (e.g. refilling a round before
+     * resolving it)
+     */
+    public interface Timed {
+        /**
+         * @return nanoseconds spent in the measured part
+         */
+        long run() throws Exception;
+    }
+
+    private static final int WARMUP = Integer.getInteger("bench.warmup", 2);
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 3);
+    private static final long TIME_NANOS = Long.getLong("bench.time", 300) * 1_000_000L;
+
+    // results land here so the JIT can't drop the work that produced them
+    private static volatile long sink;
+
+    private final Pattern filter;
+    private final PrintStream out = System.out; // benchmarks may swap System.out to silence what they call
+    private final List<String> rows = new ArrayList<>();
+
+    /**
+     * @param args main's arguments (optional filter regex first)
+     */
+    public Bench(String[] args) {
+        filter = args.length > 0 ? Pattern.compile(args[0]) : null;
+        out.println(String.format("warm-up %s x %sms, measure %s x %sms", WARMUP, TIME_NANOS / 1_000_000,
+                ITERATIONS, TIME_NANOS / 1_000_000));
+        out.println(header());
+    }
+
+    public static void consume(long value) {
+        sink += value;
+    }
+
+    public static void consume(Object value) {
+        sink += System.identityHashCode(value);
+    }
+
+    public boolean selected(String name, String param) {
+        return filter == null || filter.matcher(name + " " + param).find();
+    }
+
+    /**
+     * Runs one benchmark (if it passes the filter) and prints its row
+     */
+    public void run(String name, String param, Batch batch) throws Exception {
+        if (!selected(name, param)) {
+            return;
+        }
+        for (int i = 0; i < WARMUP; i++) {
+            iteration(batch);
+        }
+        double[] nsPerOp = new double[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            nsPerOp[i] = iteration(batch);
+        }
+        report(name, param, nsPerOp);
+    }
+
+    /**
+     * Like run() but only the time each operation reports counts; an
+     * iteration still ends on wall time, so slow setups run fewer operations
+     */
+    public void runTimed(String name, String param, Timed op) throws Exception {
+        if (!selected(name, param)) {
+            return;
+        }
+        for (int i = 0; i < WARMUP; i++) {
+            iteration(op);
+        }
+        double[] nsPerOp = new double[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            nsPerOp[i] = iteration(op);
+        }
+        report(name, param, nsPerOp);
+    }
+
+    private void report(String name, String param, double[] nsPerOp) {
+        double mean = 0;
+        double min = Double.MAX_VALUE;
+        double max = 0;
+        for (double v : nsPerOp) {
+            mean += v / ITERATIONS;
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+        String row = String.format("%-24s %-26s %14.1f %12.1f %14.0f", name, param, mean, (max - min) / 2,
+                1e9 / mean);
+        rows.add(row);
+        out.println(row);
+    }
+
+    private static double iteration(Batch batch) throws Exception {
+        long ops = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            ops += batch.run();
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < TIME_NANOS);
+        return (double) elapsed / Math.max(1, ops);
+    }
+
+    private static double iteration(Timed op) throws Exception {
+        long ops = 0;
+        long measured = 0;
+        long start = System.nanoTime();
+        do {
+            measured += op.run();
+            ops++;
+        } while (System.nanoTime() - start < TIME_NANOS);
+        return (double) measured / ops;
+    }
+
+    private static String header() {
+        return String.format("%-24s %-26s %14s %12s %14s", "benchmark", "param", "ns/op", "+/-", "ops/s");
+    }
+
+    /**
+     * Reprints every row (handy when the run logged in between)
+     */
+    public void summary() {
+        out.println();
+        out.println(header());
+        for (String row : rows) {
+            out.println(row);
+        }
+    }
+}
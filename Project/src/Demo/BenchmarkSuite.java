@@ -0,0 +1,25 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Runs every hot-path benchmark (codecs, rooms, client parsing) and prints one summary table.
+package Demo;
+
+import Common.Log;
+
+/**
+ * Same rows as running PayloadCodecBenchmarks, Server.ServerBenchmarks and
+ * Client.ClientBenchmarks one after another. Compare a run before and after
+ * a change on the same machine with the same flags.
+ * Usage: BenchmarkSuite [filter regex], e.g. BenchmarkSuite "relay|onRoundEnd"
+ * (see Bench for warm-up/iteration settings)
+ */
+public class BenchmarkSuite {
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("log.level") == null) {
+            Log.setLevel(Log.Level.WARN);
+        }
+        Bench bench = new Bench(args);
+        PayloadCodecBenchmarks.run(bench);
+        Server.ServerBenchmarks.run(bench);
+        Client.ClientBenchmarks.run(bench);
+        bench.summary();
+    }
+}
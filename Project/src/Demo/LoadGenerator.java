@@ -0,0 +1,552 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Headless load tool; N socket clients speak the real protocol and play RPS sessions against a server.
+package Demo;
+
+import Common.BatchPayload;
+import Common.ConnectionPayload;
+import Common.ConnectionThreads;
+import Common.Constants;
+import Common.GameEvent;
+import Common.GameEventPayload;
+import Common.Payload;
+import Common.PayloadCodec;
+import Common.PayloadCodecs;
+import Common.PayloadFraming;
+import Common.PayloadType;
+import Common.SerializedPayloadCodec;
+import Server.LatencyHistogram;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Players are split into rooms of roomSize. In each room the first player
+ * creates it, the rest join once it exists, everyone readies up, and the host
+ * starts a session as soon as the whole room is ready and again after every
+ * game over. Every player still in the game picks a random r/p/s one think
+ * time after each round starts. Nothing is shared with the real Client; each
+ * player is a socket, a reader thread and a few fields.
+ * <p>
+ * Usage: LoadGenerator [host] [port] [players] [roomSize] [seconds]
+ * (defaults localhost 3000 100 4 60). Settings:
+ * -Dload.think=fixed:MS | uniform:MIN-MAX | exp:MEAN (default uniform:200-1500),
+ * -Dload.rate=connections per second (default 200),
+ * -Dload.threads=platform|virtual (reader threads, default platform),
+ * -Dload.report=seconds between progress lines (default 5).
+ * </p>
+ * <p>
+ * Pick-to-resolution is measured per room from the last pick sent to the
+ * first "Round N ending..." any member of that room receives. "Rejected"
+ * counts picks the server refused (spectators, late picks); "errors" counts
+ * failed connects, I/O failures and room errors.
+ * </p>
+ * <p>
+ * Note: Thousands of platform reader threads are fine on Linux; raise the
+ * open file limit (ulimit -n) for the client and the server first.
+ * </p>
+ */
+public class LoadGenerator {
+    private static final String[] PICKS = { "r", "p", "s" };
+
+    private final String host;
+    private final int port;
+    private final int players;
+    private final int roomSize;
+    private final long durationNanos;
+    private final ThinkTime think = ThinkTime.parse(System.getProperty("load.think", "uniform:200-1500"));
+    private final String runId = Long.toString(System.currentTimeMillis() % 1_000_000, 36);
+    private final List<Player> all = new ArrayList<>();
+    private final ScheduledExecutorService timers = Executors.newScheduledThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors() / 2), r -> {
+                Thread t = new Thread(r, "LoadTimer");
+                t.setDaemon(true);
+                return t;
+            });
+    private volatile boolean running = true;
+
+    // ----- Stats -----
+    private final LongAdder connected = new LongAdder();
+    private final LongAdder connectFailures = new LongAdder();
+    private final LongAdder disconnects = new LongAdder();
+    private final LongAdder payloadsIn = new LongAdder();
+    private final LongAdder payloadsOut = new LongAdder();
+    private final LongAdder picks = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder resolutions = new LongAdder();
+    private final LongAdder sessions = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram connectLatency = new LatencyHistogram();
+    private final LatencyHistogram pickToResolution = new LatencyHistogram();
+
+    public LoadGenerator(String host, int port, int players, int roomSize, int seconds) {
+        this.host = host;
+        this.port = port;
+        this.players = players;
+        this.roomSize = Math.max(2, roomSize);
+        this.durationNanos = TimeUnit.SECONDS.toNanos(seconds);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 3000;
+        int players = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int roomSize = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 60;
+        new LoadGenerator(host, port, players, roomSize, seconds).run();
+    }
+
+    /**
+     * Ramps up, plays for the configured time, disconnects everyone and prints the totals
+     */
+    public void run() throws InterruptedException {
+        System.out.println(String.format("LoadGenerator: %s players in rooms of %s against %s:%s for %ss, think %s",
+                players, roomSize, host, port, TimeUnit.NANOSECONDS.toSeconds(durationNanos), think));
+        ConnectionThreads.Mode mode = "virtual".equalsIgnoreCase(System.getProperty("load.threads"))
+                ? ConnectionThreads.Mode.VIRTUAL
+                : ConnectionThreads.Mode.PLATFORM;
+        ExecutorService readers = ConnectionThreads.newPerTaskExecutor(mode, "LoadPlayer");
+        long reportNanos = TimeUnit.SECONDS.toNanos(Integer.getInteger("load.report", 5));
+        long launchGapNanos = 1_000_000_000L / Math.max(1, Integer.getInteger("load.rate", 200));
+
+        long start = System.nanoTime();
+        long end = start + durationNanos;
+        long nextReport = start + reportNanos;
+        Snapshot last = new Snapshot(start);
+        Room room = null;
+        for (int i = 0; i < players; i++) {
+            if (i % roomSize == 0) {
+                room = new Room("load-" + runId + "-" + (i / roomSize));
+            }
+            Player player = new Player(i, room);
+            all.add(player);
+            readers.execute(player);
+            // pace the ramp; report while ramping too
+            long launchAt = start + (i + 1) * launchGapNanos;
+            while (System.nanoTime() < launchAt) {
+                Thread.sleep(Math.max(1, TimeUnit.NANOSECONDS.toMillis(launchAt - System.nanoTime())));
+            }
+            if (System.nanoTime() >= nextReport) {
+                last = report(start, last);
+                nextReport += reportNanos;
+            }
+        }
+        ScheduledFutureHolder heartbeat = new ScheduledFutureHolder();
+        heartbeat.start();
+        while (System.nanoTime() < end) {
+            Thread.sleep(Math.max(1, Math.min(TimeUnit.NANOSECONDS.toMillis(nextReport - System.nanoTime()),
+                    TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime()))));
+            if (System.nanoTime() >= nextReport) {
+                last = report(start, last);
+                nextReport += reportNanos;
+            }
+        }
+        running = false;
+        heartbeat.stop();
+        for (Player player : all) {
+            player.close();
+        }
+        readers.shutdown();
+        readers.awaitTermination(5, TimeUnit.SECONDS);
+        summary(start);
+    }
+
+    // keeps the JVM-wide heartbeat so idle (eliminated/spectating) players aren't timed out
+    private final class ScheduledFutureHolder {
+        private java.util.concurrent.ScheduledFuture<?> future;
+
+        void start() {
+            future = timers.scheduleAtFixedRate(() -> {
+                for (Player player : all) {
+                    if (player.isConnected()) {
+                        Payload hb = new Payload();
+                        hb.setPayloadType(PayloadType.HEARTBEAT);
+                        player.send(hb);
+                    }
+                }
+            }, Constants.HEARTBEAT_INTERVAL_MS, Constants.HEARTBEAT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+
+        void stop() {
+            future.cancel(false);
+        }
+    }
+
+    // ----- Reporting -----
+
+    private final class Snapshot {
+        final long nanos;
+        final long connects;
+        final long in;
+        final long out;
+        final long picked;
+
+        Snapshot(long nanos) {
+            this.nanos = nanos;
+            this.connects = connected.sum();
+            this.in = payloadsIn.sum();
+            this.out = payloadsOut.sum();
+            this.picked = picks.sum();
+        }
+    }
+
+    private Snapshot report(long start, Snapshot last) {
+        Snapshot now = new Snapshot(System.nanoTime());
+        double secs = Math.max(1e-9, (now.nanos - last.nanos) / 1e9);
+        System.out.println(String.format(
+                "t=%3ds conns=%d (%.0f/s) in=%.0f/s out=%.0f/s picks=%.0f/s resolved=%d p50=%.1fms p99=%.1fms rejected=%d errors=%d",
+                TimeUnit.NANOSECONDS.toSeconds(now.nanos - start), now.connects, (now.connects - last.connects) / secs,
+                (now.in - last.in) / secs, (now.out - last.out) / secs, (now.picked - last.picked) / secs,
+                resolutions.sum(), pickToResolution.getPercentile(50) / 1e6, pickToResolution.getPercentile(99) / 1e6,
+                rejected.sum(), errors.sum()));
+        return now;
+    }
+
+    private void summary(long start) {
+        double secs = (System.nanoTime() - start) / 1e9;
+        System.out.println();
+        System.out.println("=== LoadGenerator summary ===");
+        System.out.println(String.format("connections   %d ok, %d failed, %d dropped by the server", connected.sum(),
+                connectFailures.sum(), disconnects.sum()));
+        System.out.println(String.format("connect       %s", describe(connectLatency)));
+        System.out.println(String.format("messages      %d in (%.0f/s), %d out (%.0f/s)", payloadsIn.sum(),
+                payloadsIn.sum() / secs, payloadsOut.sum(), payloadsOut.sum() / secs));
+        System.out.println(String.format("game          %d sessions, %d rounds resolved, %d picks, %d rejected",
+                sessions.sum(), resolutions.sum(), picks.sum(), rejected.sum()));
+        System.out.println(String.format("pick->resolve %s", describe(pickToResolution)));
+        System.out.println(String.format("errors        %d", errors.sum()));
+    }
+
+    private static String describe(LatencyHistogram h) {
+        return String.format("n=%d mean=%.2fms p50=%.2fms p90=%.2fms p99=%.2fms p999=%.2fms max=%.2fms",
+                h.getCount(), h.getMean() / 1e6, h.getPercentile(50) / 1e6, h.getPercentile(90) / 1e6,
+                h.getPercentile(99) / 1e6, h.getPercentile(99.9) / 1e6, h.getMax() / 1e6);
+    }
+
+    // ----- Think time -----
+
+    /**
+     * Delay before each player action (create/join, ready, start, pick)
+     */
+    static final class ThinkTime {
+        private final String kind;
+        private final long a;
+        private final long b;
+
+        private ThinkTime(String kind, long a, long b) {
+            this.kind = kind;
+            this.a = a;
+            this.b = b;
+        }
+
+        /**
+         * @param spec fixed:MS, uniform:MIN-MAX or exp:MEAN (milliseconds)
+         */
+        static ThinkTime parse(String spec) {
+            try {
+                String[] parts = spec.trim().toLowerCase().split(":", 2);
+                switch (parts[0]) {
+                    case "fixed":
+                        return new ThinkTime("fixed", Long.parseLong(parts[1]), 0);
+                    case "uniform": {
+                        String[] range = parts[1].split("-", 2);
+                        long min = Long.parseLong(range[0]);
+                        return new ThinkTime("uniform", min, Math.max(min, Long.parseLong(range[1])));
+                    }
+                    case "exp":
+                        return new ThinkTime("exp", Long.parseLong(parts[1]), 0);
+                    default:
+                        break;
+                }
+            } catch (RuntimeException e) {
+                // fall through to the error below
+            }
+            throw new IllegalArgumentException("Bad load.think '" + spec + "' (fixed:MS, uniform:MIN-MAX, exp:MEAN)");
+        }
+
+        long nextMillis() {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            switch (kind) {
+                case "uniform":
+                    return a + (b > a ? rnd.nextLong(b - a + 1) : 0);
+                case "exp":
+                    return (long) (-a * Math.log(1 - rnd.nextDouble()));
+                default:
+                    return a;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return kind.equals("uniform") ? kind + ":" + a + "-" + b : kind + ":" + a;
+        }
+    }
+
+    // ----- Rooms and players -----
+
+    /**
+     * One simulated room: who hosts it and the shared timing for its rounds
+     */
+    private final class Room {
+        final String name;
+        final CompletableFuture<Void> created = new CompletableFuture<>();
+        final AtomicInteger ready = new AtomicInteger();
+        final AtomicLong lastPickNanos = new AtomicLong(); // 0 = no pick since the last resolution
+        final AtomicInteger resolvedRound = new AtomicInteger();
+        volatile Player host;
+        volatile int members;
+
+        Room(String name) {
+            this.name = name;
+        }
+
+        void notePick(long nanos) {
+            lastPickNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        /**
+         * First member to see "Round N ending..." records the latency for round N
+         */
+        void noteResolution(int round, long nanos) {
+            int seen = resolvedRound.get();
+            if (round > seen || round < seen - 1) { // a new session restarts the count at 1
+                if (resolvedRound.compareAndSet(seen, round)) {
+                    long pick = lastPickNanos.getAndSet(0);
+                    resolutions.increment();
+                    if (pick > 0) {
+                        pickToResolution.record(nanos - pick);
+                    }
+                }
+            }
+        }
+
+        void startSession() {
+            Player h = host;
+            if (running && h != null) {
+                resolvedRound.set(0);
+                Payload start = new Payload();
+                start.setPayloadType(PayloadType.START);
+                h.send(start);
+            }
+        }
+    }
+
+    private final class Player implements Runnable {
+        private final Room room;
+        private final String name;
+        private final boolean isHost;
+        private volatile Socket socket;
+        private DataOutputStream out;
+        private volatile PayloadCodec codec = SerializedPayloadCodec.INSTANCE; // handshake format
+        private volatile long clientId = Constants.DEFAULT_CLIENT_ID;
+        private volatile boolean eliminated;
+        private volatile boolean inRoom;
+        private long connectStart;
+
+        Player(int index, Room room) {
+            this.room = room;
+            this.name = "load" + index;
+            this.isHost = room.members++ == 0;
+            if (isHost) {
+                room.host = this;
+            }
+        }
+
+        boolean isConnected() {
+            Socket s = socket;
+            return s != null && !s.isClosed() && clientId != Constants.DEFAULT_CLIENT_ID;
+        }
+
+        @Override
+        public void run() {
+            connectStart = System.nanoTime();
+            try (Socket s = new Socket()) {
+                s.setTcpNoDelay(true);
+                s.connect(new InetSocketAddress(host, port), 10_000);
+                socket = s;
+                out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+                DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+                ConnectionPayload hello = new ConnectionPayload();
+                hello.setPayloadType(PayloadType.CLIENT_CONNECT);
+                hello.setClientName(name);
+                hello.setCodecs(PayloadCodecs.SUPPORTED);
+                send(hello);
+                while (running) {
+                    byte[] frame = PayloadFraming.readFrame(in);
+                    onPayload(PayloadCodecs.decode(frame, 0, frame.length));
+                }
+            } catch (IOException e) {
+                if (!running) {
+                    return; // we closed it
+                }
+                if (socket == null) {
+                    connectFailures.increment();
+                    errors.increment();
+                } else {
+                    disconnects.increment();
+                    errors.increment();
+                }
+            }
+        }
+
+        void close() {
+            Socket s = socket;
+            if (s != null) {
+                try {
+                    s.close();
+                } catch (IOException e) {
+                    // already closed
+                }
+            }
+        }
+
+        void send(Payload payload) {
+            DataOutputStream o = out;
+            if (o == null) {
+                return;
+            }
+            try {
+                byte[] body = codec.encode(payload);
+                synchronized (o) {
+                    PayloadFraming.writeFrame(o, body);
+                    o.flush();
+                }
+                payloadsOut.increment();
+            } catch (IOException e) {
+                if (running) {
+                    errors.increment();
+                }
+                close();
+            }
+        }
+
+        private void later(Runnable action) {
+            if (running) {
+                timers.schedule(() -> {
+                    if (running) {
+                        action.run();
+                    }
+                }, think.nextMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void sendText(PayloadType type, String message) {
+            Payload p = new Payload();
+            p.setPayloadType(type);
+            p.setMessage(message);
+            send(p);
+        }
+
+        private void onPayload(Payload payload) {
+            payloadsIn.increment();
+            switch (payload.getPayloadType()) {
+                case BATCH:
+                    payloadsIn.decrement(); // count what's inside instead
+                    for (Payload item : ((BatchPayload) payload).getPayloads()) {
+                        onPayload(item);
+                    }
+                    break;
+                case CLIENT_ID:
+                    onClientId((ConnectionPayload) payload);
+                    break;
+                case ROSTER:
+                    onJoined(payload.getMessage());
+                    break;
+                case GAME_EVENT:
+                    onGameEvent((GameEventPayload) payload);
+                    break;
+                case MESSAGE:
+                    onMessage(payload.getMessage());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void onClientId(ConnectionPayload id) {
+            codec = PayloadCodecs.forName(id.getCodecs());
+            clientId = id.getClientId();
+            connected.increment();
+            connectLatency.recordSince(connectStart);
+            if (isHost) {
+                later(() -> sendText(PayloadType.ROOM_CREATE, room.name));
+            } else {
+                room.created.thenRun(() -> later(() -> sendText(PayloadType.ROOM_JOIN, room.name)));
+            }
+        }
+
+        private void onJoined(String message) {
+            if (inRoom || message == null || !message.startsWith("Room[" + room.name + "]")) {
+                return; // the lobby's roster
+            }
+            inRoom = true;
+            if (isHost) {
+                room.created.complete(null);
+            }
+            later(() -> {
+                sendText(PayloadType.MESSAGE, "[READY] 1");
+                if (room.ready.incrementAndGet() == room.members) {
+                    // give the last READY a moment to land before the START behind it
+                    timers.schedule(room::startSession, 250, TimeUnit.MILLISECONDS);
+                }
+            });
+        }
+
+        private void onGameEvent(GameEventPayload event) {
+            if (event.getEvent() == GameEvent.ELIMINATED && event.getClientId() == clientId) {
+                eliminated = event.isOn();
+            } else if (event.getEvent() == GameEvent.ROUND_START && !eliminated) {
+                later(() -> {
+                    if (!eliminated) {
+                        sendText(PayloadType.PICK, PICKS[ThreadLocalRandom.current().nextInt(PICKS.length)]);
+                        picks.increment();
+                        room.notePick(System.nanoTime());
+                    }
+                });
+            }
+        }
+
+        private void onMessage(String message) {
+            if (message == null) {
+                return;
+            }
+            if (message.startsWith("Round ") && message.endsWith(" ending...")) {
+                try {
+                    int round = Integer.parseInt(message.substring(6, message.length() - 10).trim());
+                    room.noteResolution(round, System.nanoTime());
+                } catch (NumberFormatException e) {
+                    // not a round line after all
+                }
+            } else if (message.startsWith("Session reset")) {
+                if (isHost) {
+                    sessions.increment();
+                    later(room::startSession);
+                }
+            } else if (message.startsWith("You're eliminated")) {
+                eliminated = true; // spectators get no ELIMINATED event, only this on their first pick
+                rejected.increment();
+            } else if (message.startsWith("You cannot pick") || message.startsWith("You already picked")
+                    || message.startsWith("That option is on cooldown") || message.startsWith("Invalid pick")) {
+                rejected.increment();
+            } else if (message.startsWith("Room ") && (message.endsWith("already exists")
+                    || message.endsWith("doesn't exist"))) {
+                errors.increment();
+            }
+        }
+    }
+}
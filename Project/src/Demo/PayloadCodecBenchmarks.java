@@ -0,0 +1,132 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Encode/decode cost of every Payload subclass under both codecs (binary and Java serialization).
+package Demo;
+
+import Common.BatchPayload;
+import Common.BinaryPayloadCodec;
+import Common.ConnectionPayload;
+import Common.GameEvent;
+import Common.GameEventPayload;
+import Common.Payload;
+import Common.PayloadCodec;
+import Common.PayloadCodecs;
+import Common.PayloadType;
+import Common.PointsPayload;
+import Common.RoomsPayload;
+import Common.RosterPayload;
+import Common.SerializedPayloadCodec;
+import Common.UserListPayload;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Samples are sized like a busy 16-player room (scoreboards and rosters with
+ * 16 entries, a 12-payload tick batch). Decoding goes through
+ * PayloadCodecs.decode() like the server's read path does.
+ * Usage: PayloadCodecBenchmarks [filter regex] (see Bench for settings)
+ */
+public class PayloadCodecBenchmarks {
+    private static final int PLAYERS = 16;
+
+    public static void main(String[] args) throws Exception {
+        Bench bench = new Bench(args);
+        run(bench);
+        bench.summary();
+    }
+
+    public static void run(Bench bench) throws Exception {
+        Map<String, Payload> samples = samples();
+        PayloadCodec[] codecs = { BinaryPayloadCodec.INSTANCE, SerializedPayloadCodec.INSTANCE };
+        for (Map.Entry<String, Payload> sample : samples.entrySet()) {
+            for (PayloadCodec codec : codecs) {
+                final Payload payload = sample.getValue();
+                final byte[] body = codec.encode(payload);
+                String param = sample.getKey() + "/" + PayloadCodecs.nameOf(codec);
+                bench.run("codec.encode", param, () -> {
+                    for (int i = 0; i < 100; i++) {
+                        Bench.consume(codec.encode(payload).length);
+                    }
+                    return 100;
+                });
+                bench.run("codec.decode", param, () -> {
+                    for (int i = 0; i < 100; i++) {
+                        Bench.consume(PayloadCodecs.decode(body, 0, body.length));
+                    }
+                    return 100;
+                });
+            }
+        }
+    }
+
+    private static Map<String, Payload> samples() {
+        Map<String, Payload> samples = new LinkedHashMap<>();
+
+        Payload message = new Payload();
+        message.setPayloadType(PayloadType.MESSAGE);
+        message.setClientId(7);
+        message.setMessage("alice#7: good game everyone, rematch?");
+        samples.put("Payload", message);
+
+        ConnectionPayload connect = new ConnectionPayload();
+        connect.setPayloadType(PayloadType.ROOM_JOIN);
+        connect.setClientId(7);
+        connect.setClientName("alice");
+        connect.setMessage("Room[arena] alice#7 joined the room");
+        samples.put("ConnectionPayload", connect);
+
+        Map<Long, Integer> points = new LinkedHashMap<>();
+        Map<Long, Boolean> flags = new LinkedHashMap<>();
+        RosterPayload roster = new RosterPayload();
+        for (long id = 1; id <= PLAYERS; id++) {
+            points.put(id, (int) (id % 4));
+            flags.put(id, id % 3 == 0);
+            roster.add(id, "player" + id);
+        }
+
+        PointsPayload scoreboard = new PointsPayload();
+        scoreboard.setPayloadType(PayloadType.POINTS_SYNC);
+        scoreboard.setMessage("[SCOREBOARD]");
+        scoreboard.setPointsByClientId(points);
+        samples.put("PointsPayload", scoreboard);
+
+        UserListPayload userList = new UserListPayload();
+        userList.setPayloadType(PayloadType.USER_LIST);
+        userList.setKeyframe(true);
+        userList.setVersion(42);
+        userList.setPoints(points);
+        userList.setEliminated(flags);
+        userList.setPending(flags);
+        userList.setAway(flags);
+        userList.setSpectators(flags);
+        samples.put("UserListPayload", userList);
+
+        RoomsPayload rooms = new RoomsPayload();
+        rooms.setPayloadType(PayloadType.ROOMS_SYNC);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            names.add("arena-" + i);
+        }
+        rooms.setRooms(names);
+        rooms.setKind(RoomsPayload.KIND_PAGE);
+        rooms.setLimit(20);
+        samples.put("RoomsPayload", rooms);
+
+        roster.setPayloadType(PayloadType.ROSTER);
+        roster.setMessage("Room[arena] You joined the room");
+        samples.put("RosterPayload", roster);
+
+        samples.put("GameEventPayload", new GameEventPayload(GameEvent.PENDING, 7, 1));
+
+        BatchPayload batch = new BatchPayload();
+        List<Payload> tick = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            tick.add(i % 3 == 0 ? message : new GameEventPayload(GameEvent.PENDING, i, 0));
+        }
+        batch.setPayloads(tick);
+        samples.put("BatchPayload", batch);
+        return samples;
+    }
+}
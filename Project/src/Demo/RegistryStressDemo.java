@@ -0,0 +1,164 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Concurrency stress run for client id allocation and the room registry (no sockets).
+package Demo;
+
+import Exceptions.DuplicateRoomException;
+import Server.ClientIdAllocator;
+import Server.Room;
+import Server.RoomRegistry;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Starts thousands of threads at once (like a connect storm) and checks:
+ * <ul>
+ * <li>every allocated client id is unique and none is lost</li>
+ * <li>racing creators of the same room name get exactly one winner</li>
+ * <li>no room goes missing and a stale remove never drops a newer room</li>
+ * </ul>
+ * Usage: RegistryStressDemo [threads] [idsPerThread] [roomNames]
+ * <p>
+ * Exits with status 1 if any check fails.
+ * </p>
+ */
+public class RegistryStressDemo {
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int idsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int roomNames = args.length > 2 ? Integer.parseInt(args[2]) : 250;
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // Room() logs every creation
+        boolean ok;
+        try {
+            ok = checkClientIds(console, threads, idsPerThread)
+                    & checkRoomCreation(console, threads, roomNames)
+                    & checkStaleRemove(console);
+        } finally {
+            System.setOut(console);
+        }
+        System.out.println(ok ? "ALL CHECKS PASSED" : "FAILURES DETECTED");
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean checkClientIds(PrintStream out, int threads, int idsPerThread) throws Exception {
+        ClientIdAllocator ids = new ClientIdAllocator();
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+        AtomicInteger invalid = new AtomicInteger();
+        long ms = race(threads, i -> {
+            for (int n = 0; n < idsPerThread; n++) {
+                long id = ids.next();
+                if (id < 1) {
+                    invalid.incrementAndGet();
+                }
+                if (!seen.add(id)) {
+                    duplicates.incrementAndGet();
+                }
+            }
+        });
+        long expected = (long) threads * idsPerThread;
+        boolean ok = duplicates.get() == 0 && invalid.get() == 0 && seen.size() == expected
+                && ids.getLast() == expected;
+        out.println(String.format("[ids]   %s threads x %s ids in %sms: unique=%s duplicates=%s invalid=%s -> %s",
+                threads, idsPerThread, ms, seen.size(), duplicates.get(), invalid.get(), ok ? "OK" : "FAIL"));
+        return ok;
+    }
+
+    private static boolean checkRoomCreation(PrintStream out, int threads, int roomNames) throws Exception {
+        RoomRegistry registry = new RoomRegistry();
+        ConcurrentHashMap<String, AtomicInteger> winners = new ConcurrentHashMap<>();
+        AtomicInteger duplicatesRejected = new AtomicInteger();
+        long ms = race(threads, i -> {
+            // every thread hits every name, alternating case so lookups must normalize
+            for (int n = 0; n < roomNames; n++) {
+                String name = ((i + n) % 2 == 0 ? "Room-" : "room-") + n;
+                try {
+                    registry.create(name, Room::new);
+                    winners.computeIfAbsent(name.toLowerCase(), k -> new AtomicInteger()).incrementAndGet();
+                } catch (DuplicateRoomException e) {
+                    duplicatesRejected.incrementAndGet();
+                }
+            }
+        });
+        int multiWinners = 0;
+        int missing = 0;
+        for (int n = 0; n < roomNames; n++) {
+            AtomicInteger w = winners.get("room-" + n);
+            if (w == null || w.get() != 1) {
+                multiWinners++;
+            }
+            if (registry.get("ROOM-" + n) == null) {
+                missing++;
+            }
+        }
+        long expectedRejects = (long) threads * roomNames - roomNames;
+        boolean ok = multiWinners == 0 && missing == 0 && registry.size() == roomNames
+                && duplicatesRejected.get() == expectedRejects;
+        out.println(String.format(
+                "[rooms] %s threads x %s names in %sms: registered=%s wrongWinnerCount=%s missing=%s rejected=%s -> %s",
+                threads, roomNames, ms, registry.size(), multiWinners, missing, duplicatesRejected.get(),
+                ok ? "OK" : "FAIL"));
+        return ok;
+    }
+
+    private static boolean checkStaleRemove(PrintStream out) throws Exception {
+        RoomRegistry registry = new RoomRegistry();
+        Room first = registry.create("arena", Room::new);
+        boolean removedFirst = registry.remove(first);
+        Room second = registry.create("Arena", Room::new);
+        boolean staleRemoved = registry.remove(first); // the old instance closing late
+        boolean ok = removedFirst && !staleRemoved && registry.get("arena") == second;
+        out.println(String.format("[stale] late remove of a closed room kept the newer one -> %s", ok ? "OK" : "FAIL"));
+        return ok;
+    }
+
+    private interface Worker {
+        void run(int index) throws Exception;
+    }
+
+    /**
+     * Starts every thread, releases them together and waits for all
+     *
+     * @return elapsed millis after the gate opened
+     */
+    private static long race(int threads, Worker worker) throws Exception {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch gate = new CountDownLatch(1);
+        List<Thread> all = new ArrayList<>(threads);
+        AtomicInteger failures = new AtomicInteger();
+        for (int i = 0; i < threads; i++) {
+            final int index = i;
+            Thread t = new Thread(() -> {
+                ready.countDown();
+                try {
+                    gate.await();
+                    worker.run(index);
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                }
+            }, "stress-" + i);
+            t.start();
+            all.add(t);
+        }
+        ready.await();
+        long start = System.nanoTime();
+        gate.countDown();
+        for (Thread t : all) {
+            t.join();
+        }
+        if (failures.get() > 0) {
+            throw new IllegalStateException(failures.get() + " stress threads failed");
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
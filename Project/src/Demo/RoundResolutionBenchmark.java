@@ -0,0 +1,157 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Times RuleSet round resolution on huge rooms and checks it against the old map/switch approach.
+package Demo;
+
+import Server.RuleSet;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * For each built-in rule graph, fills a round with random picks for N players
+ * (some drawn from every choice, some from just two so there are winners),
+ * resolves it repeatedly and prints the best and median time. The RPSLS rows
+ * also time the previous HashMap/HashSet + pairwise beats() resolution.
+ * Usage: RoundResolutionBenchmark [players] [iterations]
+ * <p>
+ * Exits with status 1 if the engine and a pairwise check ever disagree.
+ * </p>
+ */
+public class RoundResolutionBenchmark {
+    public static void main(String[] args) {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 25;
+        RuleSet[] all = { RuleSet.RPS, RuleSet.RPSLS, RuleSet.RPS7, RuleSet.RPS15, RuleSet.RPS101 };
+
+        boolean ok = true;
+        for (RuleSet rules : all) {
+            ok &= checkAgainstPairwise(rules);
+        }
+        System.out.println(String.format("%-8s %-12s %9s %9s %9s", "rules", "picks", "losers", "best ms", "median ms"));
+        byte[] picks = new byte[players];
+        boolean[] lost = new boolean[players];
+        Random rnd = new Random(42);
+        for (RuleSet rules : all) {
+            fill(picks, rnd, rules.size());
+            run(rules, "all", picks, lost, iterations);
+            fillTwo(picks, rnd, rules.size());
+            run(rules, "two", picks, lost, iterations);
+        }
+        fill(picks, rnd, RuleSet.RPSLS.size());
+        runBaseline("all", picks, Math.max(3, iterations / 5));
+        fillTwo(picks, rnd, RuleSet.RPSLS.size());
+        runBaseline("two", picks, Math.max(3, iterations / 5));
+
+        System.out.println(ok ? "ALL CHECKS PASSED" : "FAILURES DETECTED");
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    private static void run(RuleSet rules, String label, byte[] picks, boolean[] lost, int iterations) {
+        long[] times = new long[iterations];
+        int losers = 0;
+        for (int i = 0; i < iterations + 5; i++) { // first 5 are warm-up
+            long t0 = System.nanoTime();
+            losers = rules.resolve(picks, picks.length, lost);
+            if (i >= 5) {
+                times[i - 5] = System.nanoTime() - t0;
+            }
+        }
+        print(rules.getName(), label, losers, times);
+    }
+
+    // Brief: The resolution GameRoom used before the rule table (per-round maps/sets, O(choices^2) beats()).
+    private static void runBaseline(String label, byte[] picks, int iterations) {
+        long[] times = new long[iterations];
+        int losers = 0;
+        for (int i = 0; i < iterations + 2; i++) {
+            long t0 = System.nanoTime();
+            Map<Long, Integer> activePicks = new HashMap<>();
+            Set<Integer> present = new HashSet<>();
+            for (int p = 0; p < picks.length; p++) {
+                activePicks.put((long) p, (int) picks[p]);
+                present.add((int) picks[p]);
+            }
+            Set<Integer> winning = new HashSet<>();
+            for (Integer candidate : present) {
+                boolean beaten = false;
+                for (Integer opponent : present) {
+                    if (beatsSwitch(opponent, candidate)) { beaten = true; break; }
+                }
+                if (!beaten) winning.add(candidate);
+            }
+            losers = 0;
+            for (Map.Entry<Long, Integer> e : activePicks.entrySet()) {
+                if (!winning.contains(e.getValue())) losers++;
+            }
+            if (i >= 2) {
+                times[i - 2] = System.nanoTime() - t0;
+            }
+        }
+        print("RPSLS*", label + " (maps)", losers, times);
+    }
+
+    private static boolean beatsSwitch(int a, int b) {
+        return switch (a) {
+            case 0 -> (b == 2 || b == 3); // ROCK
+            case 1 -> (b == 0 || b == 4); // PAPER
+            case 2 -> (b == 1 || b == 3); // SCISSORS
+            case 3 -> (b == 4 || b == 1); // LIZARD
+            case 4 -> (b == 2 || b == 0); // SPOCK
+            default -> false;
+        };
+    }
+
+    // Brief: Random present-sets; the engine's winners must equal "not beaten by any present move".
+    private static boolean checkAgainstPairwise(RuleSet rules) {
+        Random rnd = new Random(7);
+        int n = rules.size();
+        long[] present = rules.newSet();
+        long[] winners = rules.newSet();
+        for (int trial = 0; trial < 2000; trial++) {
+            java.util.Arrays.fill(present, 0L);
+            int picks = 1 + rnd.nextInt(Math.min(n, 8) + (trial % 3 == 0 ? n : 0));
+            for (int i = 0; i < picks; i++) {
+                RuleSet.add(present, rnd.nextInt(n));
+            }
+            rules.winners(present, winners);
+            for (int c = 0; c < n; c++) {
+                boolean expected = RuleSet.contains(present, c);
+                for (int o = 0; o < n && expected; o++) {
+                    if (RuleSet.contains(present, o) && rules.beats(o, c)) {
+                        expected = false;
+                    }
+                }
+                if (expected != RuleSet.contains(winners, c)) {
+                    System.out.println("[check] " + rules.getName() + " mismatch for choice " + rules.choiceName(c));
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void fill(byte[] picks, Random rnd, int choices) {
+        for (int i = 0; i < picks.length; i++) {
+            picks[i] = (byte) rnd.nextInt(choices);
+        }
+    }
+
+    private static void fillTwo(byte[] picks, Random rnd, int choices) {
+        byte a = (byte) rnd.nextInt(choices);
+        byte b = (byte) ((a + 1) % choices);
+        for (int i = 0; i < picks.length; i++) {
+            picks[i] = rnd.nextBoolean() ? a : b;
+        }
+    }
+
+    private static void print(String rules, String label, int losers, long[] times) {
+        java.util.Arrays.sort(times);
+        System.out.println(String.format("%-8s %-12s %9d %9.2f %9.2f", rules, label, losers,
+                times[0] / 1e6, times[times.length / 2] / 1e6));
+    }
+}
@@ -1,22 +1,42 @@
 package Server;
 
 import Common.*;
+import Common.TextFX.Color;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.net.Socket;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Base class the handles the underlying connection between Client and
- * Server-side
+ * Server-side.
+ * <p>
+ * Note: This is a Runnable rather than a Thread so the Server decides what
+ * runs the read loop (a platform thread or a virtual thread).
+ * </p>
  */
-public abstract class BaseServerThread extends Thread {
+public abstract class BaseServerThread implements Runnable {
 
-    protected boolean isRunning = false; // control variable to stop this thread
-    protected ObjectOutputStream out; // exposed here for send()
+    protected volatile boolean isRunning = false; // control variable to stop this thread
+    protected DataOutputStream out; // only written by the writer draining outbound
+    // outbound codec; starts as Java serialization and may switch to binary at CLIENT_CONNECT
+    protected volatile PayloadCodec codec = SerializedPayloadCodec.INSTANCE;
+    // frames waiting for the socket; senders never write to the socket themselves
+    protected final OutboundQueue outbound = new OutboundQueue();
+    protected Executor writerThreads; // runs drainOutbound() (same kind of thread as the read loop)
     protected Socket client; // communication directly to "my" client
     private User user = new User();
     protected Room currentRoom;
+    private volatile Thread runner; // whatever thread is currently executing run()
+    // liveness, checked by the shared timer wheel instead of a Timer thread per connection
+    private volatile long lastFrameNanos = System.nanoTime(); // any frame, heartbeats included
+    private volatile long lastActionNanos = System.nanoTime(); // anything but heartbeats
+    private volatile HashedWheelTimer.Timeout handshakeTimeout;
+    private volatile HashedWheelTimer.Timeout idleTimeout;
 
     /**
      * Returns the current Room associated with this ServerThread
@@ -37,8 +57,7 @@ public abstract class BaseServerThread extends Thread {
             throw new NullPointerException("Room argument can't be null");
         }
         if (room == currentRoom) {
-            System.out.println(
-                    String.format("ServerThread set to the same room [%s], was this intentional?", room.getName()));
+            info(String.format("ServerThread set to the same room [%s], was this intentional?", room.getName()));
         }
         currentRoom = room;
     }
@@ -52,6 +71,13 @@ public abstract class BaseServerThread extends Thread {
         return isRunning;
     }
 
+    /**
+     * @return number of frames waiting to be written to this client
+     */
+    public int getOutboundDepth() {
+        return outbound.getDepth();
+    }
+
     public void setClientId(long clientId) {
         this.user.setClientId(clientId);
     }
@@ -69,6 +95,8 @@ public abstract class BaseServerThread extends Thread {
      */
     protected void setClientName(String clientName) {
         this.user.setClientName(clientName);
+        cancelTimeout(handshakeTimeout);
+        scheduleIdleCheck();
         onInitialized();
     }
 
@@ -88,6 +116,15 @@ public abstract class BaseServerThread extends Thread {
      */
     protected abstract void info(String message);
 
+    /**
+     * Hot-path logging (every frame in and out); off unless -Dlog.level=DEBUG,
+     * and the argument is only formatted when it's on
+     * 
+     * @param format
+     * @param arg
+     */
+    protected abstract void debug(String format, Object arg);
+
     /**
      * Triggered when object is fully initialized
      */
@@ -111,20 +148,198 @@ public abstract class BaseServerThread extends Thread {
             return true;
         }
         try {
-            info("Sending to client: " + payload);
-            out.writeObject(payload);
-            out.flush();
+            debug("Sending to client: %s", payload);
+            writePayload(payload);
             return true;
         } catch (IOException e) {
             info("Error sending message to client (most likely disconnected)");
             // comment this out to inspect the stack trace
             // e.printStackTrace();
-            cleanup();
+            // Note: closeConnection() (not cleanup()) so the room still sees our id on disconnect
+            closeConnection();
+            return false;
+        }
+    }
+
+    /**
+     * Queues a pre-encoded broadcast frame (see EncodedFrame); the bytes are
+     * shared with every other recipient using the same codec
+     * 
+     * @param frame
+     * @return true if no errors were encountered
+     */
+    protected boolean sendToClient(EncodedFrame frame) {
+        if (!isRunning) {
+            return true;
+        }
+        try {
+            debug("Sending to client: %s", frame.getPayload());
+            byte[] bytes = frame.forCodec(codec);
+            enqueueFrame(bytes);
+            Metrics.payloadOut(frame.getPayload().getPayloadType(), bytes.length);
+            FlightEvents.payloadSent(frame.getPayload().getPayloadType(), bytes.length, getClientId());
+            return true;
+        } catch (IOException e) {
+            info("Error sending message to client (most likely disconnected)");
+            closeConnection();
             return false;
         }
     }
 
-    
+    /**
+     * Encodes the payload on the caller's thread and queues the frame. Never
+     * blocks on the socket, so a slow client can't stall a room relay or the
+     * round timer.
+     * 
+     * @param payload
+     * @throws IOException if the client is a slow consumer and was evicted
+     */
+    protected void writePayload(Payload payload) throws IOException {
+        byte[] frame = PayloadFraming.toFrame(codec.encode(payload));
+        enqueueFrame(frame);
+        Metrics.payloadOut(payload.getPayloadType(), frame.length);
+        FlightEvents.payloadSent(payload.getPayloadType(), frame.length, getClientId());
+    }
+
+    /**
+     * Queues an already framed message and makes sure a writer is draining
+     * 
+     * @param frame
+     * @throws IOException if the outbound queue is full or stalled
+     */
+    protected void enqueueFrame(byte[] frame) throws IOException {
+        if (!outbound.offer(frame)) {
+            info(String.format("Slow consumer (%s frames / %s bytes queued), evicting",
+                    outbound.getDepth(), outbound.getQueuedBytes()));
+            closeConnection();
+            throw new IOException("Outbound queue full");
+        }
+        if (outbound.tryClaimWriter()) {
+            startWriter();
+        }
+    }
+
+    /**
+     * Called by whoever claimed the writer role; the default hands the drain to
+     * writerThreads. Subclasses with their own I/O thread (NIO) override this.
+     */
+    protected void startWriter() {
+        writerThreads.execute(this::drainOutbound);
+    }
+
+    /**
+     * Writes every queued frame into the buffered stream and flushes once per
+     * batch rather than once per payload
+     */
+    private void drainOutbound() {
+        try {
+            do {
+                byte[] frame;
+                while ((frame = outbound.poll()) != null) {
+                    out.write(frame);
+                }
+                out.flush();
+            } while (outbound.releaseWriter());
+        } catch (IOException e) {
+            info("Error writing to client (most likely disconnected)");
+            outbound.clear();
+            outbound.releaseWriter();
+            closeConnection();
+        }
+    }
+
+    /**
+     * Closes the socket without resetting the user so the read loop can still
+     * notify the room who left (its finally block does the full cleanup)
+     */
+    protected void closeConnection() {
+        try {
+            client.close();
+        } catch (IOException e) {
+            info("Client already closed");
+        }
+    }
+
+    /**
+     * Decodes a received frame body (whatever codec the client used) and passes it
+     * along to processPayload()
+     * 
+     * @param body
+     * @param offset
+     * @param length
+     * @throws IOException
+     */
+    protected void onFrame(byte[] body, int offset, int length) throws IOException {
+        Payload fromClient = PayloadCodecs.decode(body, offset, length);
+        long now = System.nanoTime();
+        lastFrameNanos = now;
+        PayloadType type = fromClient.getPayloadType();
+        Metrics.payloadIn(type, length);
+        FlightEvents.payloadReceived(type, length, getClientId());
+        if (type == PayloadType.HEARTBEAT) {
+            return; // only proves the client is alive
+        }
+        lastActionNanos = now;
+        debug("Received from my client: %s", fromClient);
+        processPayload(fromClient);
+        Metrics.processed(type, now);
+    }
+
+    /**
+     * Disconnects the client if it hasn't sent its name within
+     * HANDSHAKE_TIMEOUT_MS
+     */
+    protected void armHandshakeTimeout() {
+        handshakeTimeout = HashedWheelTimer.SHARED.newTimeout(() -> {
+            if (getClientName() == null || getClientName().isBlank()) {
+                info("Client name not received. Disconnecting");
+                disconnect();
+            }
+        }, Constants.HANDSHAKE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void scheduleIdleCheck() {
+        idleTimeout = HashedWheelTimer.SHARED.newTimeout(this::checkIdle, Constants.HEARTBEAT_INTERVAL_MS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs on the timer wheel every HEARTBEAT_INTERVAL_MS; disconnects a client
+     * that stopped sending (even heartbeats) and re-arms itself otherwise
+     */
+    private void checkIdle() {
+        if (!isRunning) {
+            return;
+        }
+        long now = System.nanoTime();
+        long silentMs = TimeUnit.NANOSECONDS.toMillis(now - lastFrameNanos);
+        if (silentMs >= Constants.IDLE_TIMEOUT_MS) {
+            info(String.format("No traffic for %sms. Disconnecting", silentMs));
+            // Note: closeConnection() (not disconnect()) so the read loop / event loop still
+            // tells the room who left before cleanup() forgets it
+            closeConnection();
+            return;
+        }
+        onIdleCheck(TimeUnit.NANOSECONDS.toMillis(now - lastActionNanos));
+        scheduleIdleCheck();
+    }
+
+    /**
+     * Hook for subclasses (auto-away); called on the timer wheel thread so it
+     * must hand off anything that isn't trivial
+     * 
+     * @param quietMs time since the client last did something other than a
+     *                heartbeat
+     */
+    protected void onIdleCheck(long quietMs) {
+        // default: no-op
+    }
+
+    private static void cancelTimeout(HashedWheelTimer.Timeout timeout) {
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
 
     /**
      * Terminates the server-side of the connection
@@ -136,60 +351,45 @@ public abstract class BaseServerThread extends Thread {
         }
         info("Thread being disconnected by server");
         isRunning = false;
-        this.interrupt(); // breaks out of blocking read in the run() method
+        Thread t = runner;
+        if (t != null) {
+            t.interrupt(); // breaks out of blocking read in the run() method
+        }
         cleanup(); // good practice to ensure data is written out immediately
     }
 
     @Override
     public void run() {
+        runner = Thread.currentThread();
         info("Thread starting");
-        try (ObjectOutputStream out = new ObjectOutputStream(client.getOutputStream());
-                ObjectInputStream in = new ObjectInputStream(client.getInputStream());) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(client.getOutputStream()));
+                DataInputStream in = new DataInputStream(new BufferedInputStream(client.getInputStream()));) {
             this.out = out;
             isRunning = true;
-            new java.util.Timer().schedule(new java.util.TimerTask() {
-                @Override
-                public void run() {
-                    if (getClientName() == null || getClientName().isBlank()) {
-                        info("Client name not received. Disconnecting");
-                        disconnect();
-                    }
-                }
-            }, 3000);
-            Payload fromClient;
+            armHandshakeTimeout();
             /**
              * isRunning is a flag to let us manage the loop exit condition
-             * fromClient (in.readObject()) is a blocking method that waits until data is
-             * received
-             * - null would likely mean a disconnect so we use a "set and check" logic to
-             * alternatively exit the loop
+             * PayloadFraming.readFrame() is a blocking method that waits until a whole
+             * frame is received; end of stream surfaces as an IOException
              */
             while (isRunning) {
                 try {
-                    fromClient = (Payload) in.readObject(); // blocking method
-                    if (fromClient != null) {
-                        info("Received from my client: " + fromClient);
-                        processPayload(fromClient);
-                    } else {
-                        throw new IOException("Connection interrupted"); // Specific exception for a clean break
-                    }
-                } catch (ClassCastException | ClassNotFoundException cce) {
-                    System.err.println("Error reading object as specified type: " + cce.getMessage());
-                    cce.printStackTrace();
+                    byte[] frame = PayloadFraming.readFrame(in); // blocking method
+                    onFrame(frame, 0, frame.length);
+                } catch (ClassCastException cce) {
+                    Log.error(Color.RED, "Thread", getClientId(), "Error reading object as specified type", cce);
                 } catch (IOException e) {
                     if (Thread.currentThread().isInterrupted()) {
                         info("Thread interrupted during read (likely from the disconnect() method)");
                         break;
                     }
-                    info("IO exception while reading from client");
-                    e.printStackTrace();
+                    info("IO exception while reading from client: " + e);
                     break;
                 }
             } // close while loop
         } catch (Exception e) {
             // happens when client disconnects
-            info("General Exception");
-            e.printStackTrace();
+            Log.error(Color.RED, "Thread", getClientId(), "General Exception", e);
             info("My Client disconnected");
         } finally {
             if (currentRoom != null) {
@@ -198,6 +398,7 @@ public abstract class BaseServerThread extends Thread {
             isRunning = false;
             info("Exited thread loop. Cleaning up connection");
             cleanup();
+            runner = null;
         }
     }
 
@@ -209,7 +410,12 @@ public abstract class BaseServerThread extends Thread {
         try {
             // close server-side end of connection
             currentRoom = null;
-            out.close();
+            cancelTimeout(handshakeTimeout);
+            cancelTimeout(idleTimeout);
+            outbound.clear();
+            if (out != null) {
+                out.close();
+            }
             client.close();
             user.reset();
             info("Closed Server-side Socket");
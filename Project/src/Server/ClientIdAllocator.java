@@ -0,0 +1,29 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Hands out unique, positive client ids from any number of threads.
+package Server;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replaces the unsynchronized nextClientId counter that produced duplicate
+ * ids during connect storms. A single AtomicLong is enough here: one
+ * increment per connection is nowhere near the point where striping the
+ * counter would pay off.
+ */
+public class ClientIdAllocator {
+    private final AtomicLong last = new AtomicLong();
+
+    /**
+     * @return the next id (starts at 1, never DEFAULT_CLIENT_ID or 0)
+     */
+    public long next() {
+        return last.incrementAndGet();
+    }
+
+    /**
+     * @return the most recently allocated id
+     */
+    public long getLast() {
+        return last.get();
+    }
+}
@@ -0,0 +1,66 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: A payload encoded once (per codec) so a broadcast can queue the same bytes for every member.
+package Server;
+
+import java.io.IOException;
+
+import Common.BinaryPayloadCodec;
+import Common.Payload;
+import Common.PayloadCodec;
+import Common.PayloadFraming;
+
+/**
+ * Immutable broadcast unit. Frames are encoded lazily the first time a
+ * recipient using that codec asks for them and then shared by everyone else,
+ * so an N member broadcast costs one encode per codec in use instead of N.
+ * <p>
+ * Important: Don't modify the payload after wrapping it; recipients may get
+ * bytes that were encoded before the change.
+ * </p>
+ */
+public final class EncodedFrame {
+    private final Payload payload;
+    // benign race: two threads may both encode, either result is identical
+    private volatile byte[] binaryFrame;
+    private volatile byte[] javaFrame;
+
+    private EncodedFrame(Payload payload) {
+        this.payload = payload;
+    }
+
+    public static EncodedFrame of(Payload payload) {
+        return new EncodedFrame(payload);
+    }
+
+    public Payload getPayload() {
+        return payload;
+    }
+
+    /**
+     * @param codec the recipient's negotiated codec
+     * @return length-prefixed frame bytes shared by all recipients of this codec
+     * @throws IOException
+     */
+    public byte[] forCodec(PayloadCodec codec) throws IOException {
+        if (codec instanceof BinaryPayloadCodec) {
+            byte[] frame = binaryFrame;
+            if (frame == null) {
+                frame = binaryFrame = PayloadFraming.toFrame(codec.encode(payload));
+            }
+            return frame;
+        }
+        byte[] frame = javaFrame;
+        if (frame == null) {
+            frame = javaFrame = PayloadFraming.toFrame(codec.encode(payload));
+        }
+        return frame;
+    }
+
+    /**
+     * @return size of the frame already encoded for the codec (0 if it hasn't been)
+     */
+    public int encodedLength(PayloadCodec codec) {
+        byte[] frame = codec instanceof BinaryPayloadCodec ? binaryFrame : javaFrame;
+        return frame == null ? 0 : frame.length;
+    }
+}
@@ -0,0 +1,122 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Java Flight Recorder events for payload traffic, room broadcasts, round resolution and mailbox waits.
+package Server;
+
+import Common.PayloadType;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The events live in the "RPS Server" category so a recording can line game
+ * activity up with the JDK's GC, safepoint and thread events. None of them
+ * record stack traces, and callers build an event only inside an
+ * isEnabled()/shouldCommit() check (the JIT drops the allocation when the
+ * event is off), so leaving them on costs little. Project/server.jfc
+ * enables them together with the usual GC and contention events.
+ * <p>
+ * Usage: java -XX:StartFlightRecording:settings=Project/server.jfc,filename=rps.jfr ...
+ * </p>
+ */
+public final class FlightEvents {
+    private FlightEvents() {
+    }
+
+    @Name("rps.PayloadReceived")
+    @Label("Payload Received")
+    @Category({ "RPS Server", "Network" })
+    @StackTrace(false)
+    public static final class PayloadReceived extends Event {
+        @Label("Type")
+        String payloadType;
+        @Label("Size")
+        @DataAmount
+        int bytes;
+        @Label("Client Id")
+        long clientId;
+    }
+
+    @Name("rps.PayloadSent")
+    @Label("Payload Sent")
+    @Description("One frame queued for one client (broadcast frames are encoded once and counted per recipient)")
+    @Category({ "RPS Server", "Network" })
+    @StackTrace(false)
+    public static final class PayloadSent extends Event {
+        @Label("Type")
+        String payloadType;
+        @Label("Size")
+        @DataAmount
+        int bytes;
+        @Label("Client Id")
+        long clientId;
+    }
+
+    @Name("rps.RoomBroadcast")
+    @Label("Room Broadcast")
+    @Description("Queuing one frame for every member of a room")
+    @Category({ "RPS Server", "Room" })
+    @StackTrace(false)
+    public static final class RoomBroadcast extends Event {
+        @Label("Room")
+        String room;
+        @Label("Type")
+        String payloadType;
+        @Label("Recipients")
+        int recipients;
+    }
+
+    @Name("rps.RoundResolved")
+    @Label("Round Resolved")
+    @Category({ "RPS Server", "Game" })
+    @StackTrace(false)
+    public static final class RoundResolved extends Event {
+        @Label("Room")
+        String room;
+        @Label("Round")
+        int round;
+        @Label("Players")
+        int players;
+        @Label("Losers")
+        int losers;
+        @Label("Ring Mode")
+        boolean ring;
+    }
+
+    @Name("rps.RoomMailboxWait")
+    @Label("Room Mailbox Wait")
+    @Description("Time a room's queued actions waited for a room worker; rooms have no monitor, so this is their lock wait")
+    @Category({ "RPS Server", "Room" })
+    @StackTrace(false)
+    public static final class RoomMailboxWait extends Event {
+        @Label("Room")
+        String room;
+        @Label("Queued Actions")
+        int queued;
+    }
+
+    // ----- Instant events (no duration); one call per frame -----
+
+    public static void payloadReceived(PayloadType type, int bytes, long clientId) {
+        PayloadReceived e = new PayloadReceived();
+        if (e.shouldCommit()) {
+            e.payloadType = type.name();
+            e.bytes = bytes;
+            e.clientId = clientId;
+            e.commit();
+        }
+    }
+
+    public static void payloadSent(PayloadType type, int bytes, long clientId) {
+        PayloadSent e = new PayloadSent();
+        if (e.shouldCommit()) {
+            e.payloadType = type.name();
+            e.bytes = bytes;
+            e.clientId = clientId;
+            e.commit();
+        }
+    }
+}
@@ -5,10 +5,7 @@ package Server;
 
 import java.util.Map;
 import java.util.LinkedHashMap;
-import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 
@@ -23,14 +20,18 @@ public class GameRoom extends Room {
     // Added LIZARD and SPOCK to Choice enum
     public enum Choice { ROCK, PAPER, SCISSORS, LIZARD, SPOCK, NONE }
 
-    // Per-round data
-    private final Map<Long, Choice> picks = new java.util.concurrent.ConcurrentHashMap<>();
-    private final Map<Long, Boolean> eliminated = new java.util.concurrent.ConcurrentHashMap<>();
+    // === EXTRA CHOICES FEATURE (RPS-5) ===
+    // Win relationships for RPSLS (indexes are Choice ordinals); present/winning moves are
+    // reused bitmasks so resolving a round allocates nothing
+    private static final RuleSet RULES = RuleSet.RPSLS;
+    private final long[] roundPresent = RULES.newSet();
+    private final long[] roundWinners = RULES.newSet();
 
-    // Scoreboard: clientId -> points
-    private final Map<Long, Integer> points = new java.util.concurrent.ConcurrentHashMap<>();
-    private final java.util.concurrent.ConcurrentHashMap<Long, Boolean> ready = new java.util.concurrent.ConcurrentHashMap<>();
-    private final java.util.concurrent.ConcurrentHashMap<Long, Boolean> spectators = new java.util.concurrent.ConcurrentHashMap<>();
+    // Per-player state (picks, last picks, points, eliminated/away/spectator/ready/pending flags)
+    // lives in one slot-indexed table; only touched from this room's mailbox.
+    private final PlayerTable players = new PlayerTable();
+    // Open round's picks; pickers CAS into it from their own threads (null outside CHOOSING)
+    private volatile PickBoard pickBoard;
 
 
     // Optional timer handle (safe no-op usage if not wired yet)
@@ -41,46 +42,75 @@ public class GameRoom extends Room {
     private String extraChoicesMode = "FULL"; // or "LAST3"
 
     // UCID: lm87 | Date: 2025-08-10
-    // Brief: Single-threaded scheduler for round timer + round duration (seconds).
-    private static final ScheduledExecutorService SCHEDULER =
-            Executors.newSingleThreadScheduledExecutor();
+    // Brief: Round duration (seconds); the deadline runs on this room's RoundScheduler lane.
     private static final int ROUND_SECONDS = 120;
+    private volatile int roundSeconds = ROUND_SECONDS; // per room, adjustable over JMX
+    private volatile long roundDeadlineNanos; // open round's deadline (for the MBean)
+    private int roundLosers; // eliminations in the round being resolved (flight event)
+    private final int roundLane;
+    // what members were last told about points/eliminated/pending/away/spectators
+    private final UserListVersions userListVersions = new UserListVersions();
+
+    // Optional tick coalescing (off when tickMs is 0): room broadcasts made during one tick go
+    // out as a single BatchPayload. Defaults from -Dgame.tickMs / -Dgame.maxBatch, per room
+    // via "[SETTINGS] TICK <ms> [maxBatch]".
+    private int tickMs = Integer.getInteger("game.tickMs", 0);
+    private int maxBatch = Integer.getInteger("game.maxBatch", 64);
+    private final java.util.List<Common.Payload> tickBatch = new java.util.ArrayList<>();
+    private boolean userListDirty = false;
+    private ScheduledFuture<?> tickFuture;
 
     private enum LoseRule { LOSE_ON_ATTACK, LOSE_ON_DEFEND }
 
-    private boolean cooldownEnabled = false;                         
-    private final java.util.Map<Long, Choice> lastRoundPick = new java.util.HashMap<>(); 
+    // Ring battles (proposal: A -> B, B -> C, C -> A) instead of all-vs-all; loseRule picks who
+    // falls in a lost duel. Default from -Dgame.mode=RING, per room via "[SETTINGS] MODE RING|ALL".
+    private boolean ringMode = "RING".equalsIgnoreCase(System.getProperty("game.mode", "ALL"));
+    private final SeatRing ring = new SeatRing();
 
-    private final java.util.concurrent.ConcurrentHashMap<Long, Boolean> away =
-        new java.util.concurrent.ConcurrentHashMap<>();
-        
+    private volatile boolean cooldownEnabled = false; // read by pickers off the mailbox
 
     private LoseRule loseRule = LoseRule.LOSE_ON_DEFEND; // default matches your worksheet text
 
+    // compiled once instead of on every chat line
+    private static final java.util.regex.Pattern READY_PATTERN =
+            java.util.regex.Pattern.compile("\\[READY\\]\\s+(\\d+)\\s+(\\d)");
+    private static final java.util.regex.Pattern EXTRA_CHOICES_PATTERN =
+            java.util.regex.Pattern.compile("\\[EXTRA_CHOICES\\]\\s+(\\S+)\\s+(\\S+)");
+
     public GameRoom(String name) {
         super(name);
+        roundLane = RoundScheduler.SHARED.laneFor(name);
     }
 
-    // ----- Timer helpers (safe even if you don't use timers yet) -----
-    // UCID: lm87 | Date: 2025-08-10
-    // Brief: Safe cancel for any pending round timer.
-    protected synchronized void cancelRoundTimer() {
-        if (roundTimerFuture != null) {
-            roundTimerFuture.cancel(false);
-            roundTimerFuture = null;
+    // Brief: Game-flow trace (was "[DEBUG]" prints); skipped entirely unless -Dlog.level=DEBUG.
+    private void debug(String format, Object a0, Object a1, Object a2) {
+        if (Common.Log.isEnabled(Common.Log.Level.DEBUG)) {
+            Common.Log.log(Common.Log.Level.DEBUG, null, "GameRoom", getName(), format, a0, a1, a2);
         }
     }
 
-    private boolean isSpectator(long id) {
-        return spectators.getOrDefault(id, false);
+    // ----- Timer helpers (safe even if you don't use timers yet) -----
+    // UCID: lm87 | Date: 2025-08-10
+    // Brief: Safe cancel for any pending round timer.
+    protected void cancelRoundTimer() {
+        submit(() -> {
+            if (roundTimerFuture != null) {
+                roundTimerFuture.cancel(false);
+                roundTimerFuture = null;
+            }
+        });
     }
 
     // Called by ServerThread/BaseServerThread when it detects a "[READY] <id> <0|1>" message
-    public synchronized void onReadyToggle(long id, boolean isReady) {
-        ready.put(id, isReady);
-        // If no session is running, nothing else to do.
-        // If a session *is* running: toggling ready doesn't convert a spectator mid-session.
-        // They’ll become a player next session start.
+    public void onReadyToggle(long id, boolean isReady) {
+        submit(() -> {
+            int slot = players.slotOf(id);
+            if (slot < 0) return; // not in this room
+            players.setReady(slot, isReady);
+            // If no session is running, nothing else to do.
+            // If a session *is* running: toggling ready doesn't convert a spectator mid-session.
+            // They’ll become a player next session start.
+        });
     }
 
     // Called when host updates settings
@@ -91,125 +121,100 @@ public class GameRoom extends Room {
         if(enabled == this.extraChoicesEnabled && mode.equalsIgnoreCase(this.extraChoicesMode)){
             return;
         }
-        broadcast("[SETTINGS] EXTRA_CHOICES " + enabled + " " + mode);
+        broadcastExtraChoices(enabled, mode);
     }
 
     public boolean areExtraChoicesAllowedNow() {
         if (!extraChoicesEnabled) return false;
         if ("FULL".equals(extraChoicesMode)) return true;
-        return getActivePlayers().size() <= 3;
-    }
-
-    private java.util.List<Long> getActivePlayers() {
-        java.util.List<Long> active = new java.util.ArrayList<>();
-        for (Long id : clientsInRoom.keySet()) {
-            if (!eliminated.getOrDefault(id, false) && !away.getOrDefault(id, false)) {
-                active.add(id);
-            }
-        }
-        return active;
-    }
-
-    // === EXTRA CHOICES FEATURE (RPS-5) ===
-    // Win relationships for RPSLS
-    private boolean beats(Choice a, Choice b) {
-        return switch (a) {
-            case ROCK    -> (b == Choice.SCISSORS || b == Choice.LIZARD);
-            case PAPER   -> (b == Choice.ROCK || b == Choice.SPOCK);
-            case SCISSORS-> (b == Choice.PAPER || b == Choice.LIZARD);
-            case LIZARD  -> (b == Choice.SPOCK || b == Choice.PAPER);
-            case SPOCK   -> (b == Choice.SCISSORS || b == Choice.ROCK);
-            default -> false;
-        };
+        return players.countActive() <= 3;
     }
 
     // ----- Lifecycle: Client Added/Removed (called by Room via hooks you added) -----
     // UCID: lm87 | Date: 2025-08-10
     // Brief: When a client joins, ensure scoreboard entry and sync the current board to them.
     @Override
-    protected synchronized void onClientAdded(ServerThread st) {
-        away.put(st.getClientId(), false);
-        final long id = st.getClientId();
-
-        spectators.put(st.getClientId(), true); // force spectate
-        ready.putIfAbsent(st.getClientId(), false);
-
-        points.putIfAbsent(id, 0);
+    protected void onClientAdded(ServerThread st) {
+        submit(() -> {
+            final long id = st.getClientId();
+            final int slot = players.add(id); // fresh slot: 0 points, not away/ready, no pick
 
-        boolean spectatorNow = (phase != Phase.IDLE);
-        spectators.put(id, spectatorNow);  
-        eliminated.put(id, spectatorNow);
+            boolean spectatorNow = (phase != Phase.IDLE);
+            players.setSpectator(slot, spectatorNow);
+            players.setEliminated(slot, spectatorNow);
+            st.sendPoints(snapshotBoard(), "[SYNC] Welcome to " + getName());
 
-        picks.remove(id);
-        st.sendPoints(snapshotBoard(), "[SYNC] Welcome to " + getName());
 
-
-        if (spectatorNow) {
-            broadcast(String.format("[SPECTATOR] %s joined as spectator.", st.getDisplayName()));
-        }
+            if (spectatorNow) {
+                broadcast(String.format("[SPECTATOR] %s joined as spectator.", st.getDisplayName()));
+            }
 
 
-        broadcast(String.format("%s joined %s", st.getDisplayName(), getName()));
-        syncUserList();
-        System.out.println("[DEBUG] onClientAdded -> " + st.getDisplayName() + " id=" + id +
-                " spectator=" + spectatorNow + " phase=" + phase);
+            // (the room's join delta already told everyone who joined)
+            st.sendFrame(userListVersions.keyframe()); // base for the delta below
+            syncUserList();
+            debug("onClientAdded -> %s spectator=%s phase=%s", st.getDisplayName(), spectatorNow, phase);
+        });
     }
 
     // UCID: lm87 | Date: 2025-08-10
     // Brief: When a client leaves, clean data; if room empty, reset session state.
     @Override
-    protected synchronized void onClientRemoved(ServerThread st) {
-        away.remove(st.getClientId());
-        points.remove(st.getClientId());
-        picks.remove(st.getClientId());
-        eliminated.remove(st.getClientId());
-        syncUserList();
-        broadcast(String.format("%s left %s", st.getDisplayName(), getName()));
-        System.out.println("[DEBUG] onClientRemoved -> " + st.getDisplayName() + " id=" + st.getClientId());
-
-        if (points.isEmpty()) {
-            cancelRoundTimer();
-            phase = Phase.IDLE;
-            roundNumber = 0;
-            picks.clear();
-            eliminated.clear();
-            System.out.println("[DEBUG] room empty -> reset phase/round");
-        }
+    protected void onClientRemoved(ServerThread st) {
+        submit(() -> {
+            excuseFromRound(st.getClientId(), true);
+            players.remove(st.getClientId());
+            syncUserList();
+            broadcast(String.format("%s left %s", st.getDisplayName(), getName()));
+            debug("onClientRemoved -> %s", st.getDisplayName(), null, null);
+
+            if (players.size() == 0) {
+                cancelRoundTimer();
+                closePickBoard();
+                phase = Phase.IDLE;
+                roundNumber = 0;
+                debug("room empty -> reset phase/round", null, null, null);
+            }
+        });
     }
 
     // UCID: lm87 | Date: 2025-08-10
     // Brief: Temp: allow /start to begin a session in GameRoom for MS2 testing.
     @Override
-    protected synchronized void handleMessage(ServerThread sender, String text) {
+    protected void handleMessage(ServerThread sender, String text) {
+        submit(() -> {
 
-        if (tryHandleReady(sender, text)) {
-            // optionally return; if you don't want the control line echoed as chat
-             return;
-        }
-        if (text != null && tryHandleExtraChoices(sender, text)) {
-            return; // consumed; do NOT relay as chat
+            if (tryHandleReady(sender, text)) {
+                // optionally return; if you don't want the control line echoed as chat
+                 return;
+            }
+            if (text != null && tryHandleExtraChoices(sender, text)) {
+                return; // consumed; do NOT relay as chat
+            }
+
+
+            java.util.regex.Matcher mReady = READY_PATTERN.matcher(text);
+        if (mReady.find()) {
+            long id = Long.parseLong(mReady.group(1));
+            boolean isReady = "1".equals(mReady.group(2));
+            onReadyToggle(id, isReady);       // <— actually record it
+            // (Optionally) fall through to broadcast so other clients update too.
         }
 
 
-        java.util.regex.Matcher mReady = java.util.regex.Pattern
-        .compile("\\[READY\\]\\s+(\\d+)\\s+(\\d)")
-        .matcher(text);
-    if (mReady.find()) {
-        long id = Long.parseLong(mReady.group(1));
-        boolean isReady = "1".equals(mReady.group(2));
-        onReadyToggle(id, isReady);       // <— actually record it
-        // (Optionally) fall through to broadcast so other clients update too.
-    }
+            if (tryHandleCooldown(sender, text))     return;
 
+            if (tryHandleMode(sender, text)) return;
 
-        if (tryHandleCooldown(sender, text))     return;
+            if (tryHandleTick(sender, text)) return;
 
-        if (tryHandleAway(sender, text)) return;
+            if (tryHandleAway(sender, text)) return;
 
 
 
-        // (optional) you can intercept /start or other game commands here too
-        super.handleMessage(sender, text); // default relay from Room
+            // (optional) you can intercept /start or other game commands here too
+            super.handleMessage(sender, text); // default relay from Room
+        });
     }
 
     private boolean tryHandleAway(ServerThread sender, String raw) {
@@ -234,8 +239,8 @@ public class GameRoom extends Room {
     
         Boolean newState = null;
         if (msg.equalsIgnoreCase("TOGGLE")) {
-            boolean cur = away.getOrDefault(sender.getClientId(), false);
-            newState = !cur;
+            int slot = players.slotOf(sender.getClientId());
+            newState = slot < 0 || !players.isAway(slot);
         } else if ("1".equals(msg) || "true".equalsIgnoreCase(msg)) {
             newState = true;
         } else if ("0".equals(msg) || "false".equalsIgnoreCase(msg)) {
@@ -247,24 +252,40 @@ public class GameRoom extends Room {
         setAwayFor(sender, newState);  // <- broadcasts "X is away" and sends USER_LIST with away map
         return true;
     }
+    // UCID: lm87 | Date: 2026-10-17
+    // Brief: Auto-away from the connection's idle check; no-op if already away or gone.
+    protected void markIdleAway(ServerThread st) {
+        submit(() -> {
+            int slot = players.slotOf(st.getClientId());
+            if (slot < 0 || players.isAway(slot)) {
+                return;
+            }
+            setAwayFor(st, true);
+        });
+    }
+
     private void setAwayFor(ServerThread st, boolean isAway) {
-        away.put(st.getClientId(), isAway);
+        int slot = players.slotOf(st.getClientId());
+        if (slot < 0) return;
+        players.setAway(slot, isAway);
+        excuseFromRound(st.getClientId(), isAway);
     
         // Relay a readable event to everyone
         broadcast(String.format("%s is %s", st.getDisplayName(), isAway ? "away" : "no longer away"));
     
-        // Rebuild and send the user list to everyone (includes away map)
-        java.util.Map<Long,Integer> snapshotPoints = new java.util.LinkedHashMap<>(points);
-        java.util.Map<Long,Boolean> snapshotElim   = new java.util.LinkedHashMap<>(eliminated);
-        java.util.Map<Long,Boolean> snapshotPending= new java.util.LinkedHashMap<>();
-        for (Long id : clientsInRoom.keySet()) {
-            boolean pend = !eliminated.getOrDefault(id, false)
-                         && picks.getOrDefault(id, Choice.NONE) == Choice.NONE;
-            snapshotPending.put(id, (!away.getOrDefault(id,false)) && pend);
-        }
-        for (ServerThread s : new java.util.ArrayList<>(clientsInRoom.values())) {
-            s.sendUserList(snapshotPoints, snapshotElim, snapshotPending,
-                           new java.util.HashMap<>(away), new java.util.HashMap<>(spectators));
+        // Send the change to everyone (includes away map)
+        syncUserList();
+    }
+
+    // Brief: Stop (or resume) waiting on a member's pick; may complete the round.
+    private void excuseFromRound(long id, boolean excuse) {
+        PickBoard board = pickBoard;
+        if (board == null) return;
+        int slot = board.slotOf(id);
+        if (slot < 0) return;
+        boolean none = excuse ? board.excuse(slot) : board.restore(slot);
+        if (none) {
+            resolveIfCurrent(board);
         }
     }
 
@@ -286,9 +307,110 @@ public class GameRoom extends Room {
         return true;
     }
 
+    // Brief: Parse "[SETTINGS] MODE RING|ALL" and "[SETTINGS] LOSE ATTACK|DEFEND"; applies from the next round.
+    private boolean tryHandleMode(ServerThread sender, String raw) {
+        String msg = raw == null ? "" : raw.trim();
+        if (msg.startsWith("[SETTINGS]")) msg = msg.substring(10).trim();
+        String[] parts = msg.split("\\s+");
+        if (parts.length != 2) return false;
+
+        if (parts[0].equals("MODE")) {
+            boolean ring = parts[1].equalsIgnoreCase("RING");
+            if (!ring && !parts[1].equalsIgnoreCase("ALL")) {
+                sender.sendMessage("Usage: [SETTINGS] MODE <RING|ALL>");
+                return true;
+            }
+            if (ring == ringMode) return true; // dedupe
+            ringMode = ring;
+            if (ringMode && phase != Phase.IDLE) {
+                this.ring.reset(players); // switched mid-session: seat whoever is still in
+            }
+        } else if (parts[0].equals("LOSE")) {
+            LoseRule rule;
+            if (parts[1].equalsIgnoreCase("ATTACK")) rule = LoseRule.LOSE_ON_ATTACK;
+            else if (parts[1].equalsIgnoreCase("DEFEND")) rule = LoseRule.LOSE_ON_DEFEND;
+            else {
+                sender.sendMessage("Usage: [SETTINGS] LOSE <ATTACK|DEFEND>");
+                return true;
+            }
+            if (rule == loseRule) return true;
+            loseRule = rule;
+        } else {
+            return false;
+        }
+        broadcast(describeMode());
+        return true;
+    }
+
+    @Override
+    public String getPhaseName() {
+        return phase.name();
+    }
+
+    @Override
+    protected RoomMXBean createMBean() {
+        return new GameRoomView();
+    }
+
+    // Brief: Round progress and controls for ops; reads volatile state only, controls go through the mailbox.
+    private class GameRoomView extends RoomView implements GameRoomMXBean {
+        @Override
+        public int getRoundNumber() {
+            return roundNumber;
+        }
+
+        @Override
+        public long getRoundSecondsRemaining() {
+            if (phase != Phase.CHOOSING) {
+                return 0;
+            }
+            return Math.max(0, TimeUnit.NANOSECONDS.toSeconds(roundDeadlineNanos - System.nanoTime()));
+        }
+
+        @Override
+        public double getPickCompletion() {
+            PickBoard board = pickBoard;
+            if (board == null || board.getEligible() == 0) {
+                return 0;
+            }
+            return 1.0 - (double) board.getOutstanding() / board.getEligible();
+        }
+
+        @Override
+        public int getRoundSeconds() {
+            return roundSeconds;
+        }
+
+        @Override
+        public void setRoundSeconds(int seconds) {
+            if (seconds < 1) {
+                throw new IllegalArgumentException("Round length must be at least 1 second");
+            }
+            roundSeconds = seconds;
+            submit(() -> broadcast(String.format("Round length set to %ss (from the next round)", seconds)));
+        }
+
+        @Override
+        public void forceEndRound() {
+            final int round = roundNumber;
+            submit(() -> {
+                if (phase == Phase.CHOOSING && round == roundNumber) {
+                    broadcast("Round ended by an operator.");
+                }
+                safeEndRound(round);
+            });
+        }
+    }
+
+    private String describeMode() {
+        return ringMode
+            ? "Mode: ring battles (clockwise), eliminated on " + (loseRule == LoseRule.LOSE_ON_ATTACK ? "attack" : "defense")
+            : "Mode: all vs all";
+    }
+
     private void setCooldown(boolean enabled) {          
         this.cooldownEnabled = enabled;
-        broadcast("[SETTINGS] COOLDOWN " + enabled);
+        broadcastEvent(Common.GameEvent.COOLDOWN, Common.Constants.DEFAULT_CLIENT_ID, enabled ? 1 : 0);
     }
 
     // UCID: lm87 | Date: 2025-08-11
@@ -343,41 +465,36 @@ private boolean tryHandleExtraChoices(ServerThread sender, String raw) {
     // ----- Session Start -----
     // UCID: lm87 | Date: 2025-08-10
     // Brief: Starts a new session. Resets state for all players and triggers the first round.
-    protected synchronized void onSessionStart() {
-        if(phase!= Phase.IDLE){
-            broadcast("Session already in progress.");
-            return;
-        }
-        System.out.println("[DEBUG] Session starting in room: " + getName());
-        roundNumber = 0;
-        phase = Phase.IDLE;
-        picks.clear();
-        eliminated.clear();
-        spectators.clear();
-
-        for (Long id : getClientIdsSafe()) {
-            boolean isReady = ready.getOrDefault(id, false);
-            spectators.put(id, !isReady);
-        }
+    protected void onSessionStart() {
+        submit(() -> {
+            if(phase!= Phase.IDLE){
+                broadcast("Session already in progress.");
+                return;
+            }
+            debug("Session starting", null, null, null);
+            roundNumber = 0;
+            phase = Phase.IDLE;
+            players.clearChoices();
 
-        System.out.println("[DEBUG] ready at start=" + ready);
-        System.out.println("[DEBUG] spectators at start=" + spectators);
+            // anyone not ready sits this session out as an (eliminated) spectator
+            for (int slot = players.nextSlot(0); slot >= 0; slot = players.nextSlot(slot + 1)) {
+                boolean spectator = !players.isReady(slot);
+                players.setSpectator(slot, spectator);
+                players.setEliminated(slot, spectator);
+            }
 
-        for (Long id : getClientIdsSafe()) {
-            if (isSpectator(id)) {
-                eliminated.put(id, true);      // <-- key line
-                picks.remove(id);
-            } else {
-                eliminated.put(id, false);
-                picks.put(id, Choice.NONE);
+            debug("session start: ready=%s spectators=%s", players.countReady(), players.countSpectators(), null);
+            if (ringMode) {
+                ring.reset(players); // seats the ready players clockwise in slot order
+                broadcast(describeMode());
             }
-        }
 
-        // === EXTRA CHOICES FEATURE (RPS-5) ===
-        // Let all clients know current extra-choice setting
-        broadcast("[SETTINGS] EXTRA_CHOICES " + extraChoicesEnabled + " " + extraChoicesMode);
-        broadcast("[SETTINGS] COOLDOWN " + cooldownEnabled); 
-        onRoundStart();
+            // === EXTRA CHOICES FEATURE (RPS-5) ===
+            // Let all clients know current extra-choice setting
+            broadcastExtraChoices(extraChoicesEnabled, extraChoicesMode);
+            broadcastEvent(Common.GameEvent.COOLDOWN, Common.Constants.DEFAULT_CLIENT_ID, cooldownEnabled ? 1 : 0);
+            onRoundStart();
+        });
     }
 
 
@@ -404,143 +521,248 @@ private boolean tryHandleExtraChoices(ServerThread sender, String raw) {
     
         boolean isReady = "1".equals(flag) || "true".equalsIgnoreCase(flag);
         onReadyToggle(id, isReady);
-        System.out.println("[DEBUG] READY <- id=" + id + " ready=" + isReady);
+        debug("READY <- id=%s ready=%s", id, isReady, null);
         return true;
     }
 
     // Helpers
     private Map<Long, Integer> snapshotBoard() {
         Map<Long, Integer> board = new LinkedHashMap<>();
-        points.forEach(board::put);
+        for (int slot = players.nextSlot(0); slot >= 0; slot = players.nextSlot(slot + 1)) {
+            board.put(players.idAt(slot), players.getPoints(slot));
+        }
         return board;
     }
 
     private void broadcast(String msg) {
-        for (ServerThread s : new java.util.ArrayList<>(clientsInRoom.values())) {
-            try { s.sendMessage(msg); } catch (Exception e) {
-                System.err.println("broadcast -> sendMessage failed for " + s.getDisplayName() + ": " + e);
+        sendToAll(EncodedFrame.of(ServerThread.messagePayload(Common.Constants.DEFAULT_CLIENT_ID, msg)));
+    }
+
+    // UCID: lm87 | Date: 2026-10-17
+    // Brief: Typed control events; clients switch on the event code instead of regex-parsing chat.
+    private void broadcastEvent(Common.GameEvent event, long id, int value) {
+        sendToAll(EncodedFrame.of(new Common.GameEventPayload(event, id, value)));
+    }
+
+    private void broadcastExtraChoices(boolean enabled, String mode) {
+        Common.GameEventPayload ge = new Common.GameEventPayload(Common.GameEvent.EXTRA_CHOICES,
+                Common.Constants.DEFAULT_CLIENT_ID, enabled ? 1 : 0);
+        ge.setExtra("LAST3".equalsIgnoreCase(mode) ? Common.GameEventPayload.EXTRA_MODE_LAST3
+                : Common.GameEventPayload.EXTRA_MODE_FULL);
+        sendToAll(EncodedFrame.of(ge));
+    }
+
+    // UCID: lm87 | Date: 2026-10-17
+    // Brief: Serialize-once send of a shared frame to every member; per-member variants
+    // (e.g. the welcome board in onClientAdded) go through the ServerThread send*() methods instead.
+    private void sendToAll(EncodedFrame frame) {
+        if (tickMs > 0) {
+            tickBatch.add(frame.getPayload());
+            if (tickBatch.size() >= maxBatch) {
+                flushTick();
+            } else {
+                armTick();
             }
+            return;
         }
+        deliverToAll(frame);
     }
 
-    private Set<Long> getClientIdsSafe() {
-        try { return getClientIds(); }
-        catch (Throwable t) {
-            System.out.println("[WARN] Room.getClientIds() not found; add it per MS2 notes.");
-            return java.util.Collections.emptySet();
+    private void deliverToAll(EncodedFrame frame) {
+        FlightEvents.RoomBroadcast event = new FlightEvents.RoomBroadcast();
+        event.begin();
+        int sent = 0;
+        for (ServerThread s : getMembers()) {
+            try {
+                if (s.sendFrame(frame)) {
+                    countSent(s, frame);
+                    sent++;
+                }
+            } catch (Exception e) {
+                Common.Log.log(Common.Log.Level.WARN, Common.TextFX.Color.RED, "GameRoom", getName(),
+                        "broadcast -> sendFrame failed for %s: %s", s.getDisplayName(), e);
+            }
         }
+        commitBroadcast(event, frame, sent);
     }
 
-    // UCID: lm87 | Date: 2025-08-12
-        // Brief: Parse client-side game setting messages and apply them (host-only guard if you have a host concept).
-        protected synchronized void applyGameSetting(ServerThread sender, String msg) {
-            if (msg == null) return;
-
-            // Expect: "[EXTRA_CHOICES] <0|1|true|false> <FULL|LAST3>"
-            // Be flexible: allow prefixes like "Room[xyz] user: [EXTRA_CHOICES] ..."
-            java.util.regex.Matcher m = java.util.regex.Pattern
-                    .compile("\\[EXTRA_CHOICES\\]\\s+(\\S+)\\s+(\\S+)")
-                    .matcher(msg);
-            if (!m.find()) {
-                sender.sendMessage("Invalid setting payload: " + msg);
-                return;
-            }
+    // UCID: lm87 | Date: 2026-10-17
+    // Brief: Starts the tick only when something is queued, so idle rooms cost nothing.
+    private void armTick() {
+        if (tickFuture == null) {
+            // unmetered: ticks would swamp the round deadline lateness stats
+            tickFuture = RoundScheduler.SHARED.scheduleUnmetered(roundLane, () -> submit(this::flushTick),
+                    tickMs, TimeUnit.MILLISECONDS);
+        }
+    }
 
-            String onStr  = m.group(1);
-            String mode   = m.group(2);
-            boolean enabled = "1".equals(onStr) || "true".equalsIgnoreCase(onStr);
+    // Brief: Sends everything queued this tick (plus one coalesced USER_LIST delta) as one frame.
+    // Note: per-member sends (st.send*()) skip the batch and may arrive before it.
+    private void flushTick() {
+        if (tickFuture != null) {
+            tickFuture.cancel(false);
+            tickFuture = null;
+        }
+        if (userListDirty) {
+            userListDirty = false;
+            EncodedFrame delta = nextUserListDelta();
+            if (delta != null) {
+                tickBatch.add(delta.getPayload());
+            }
+        }
+        if (tickBatch.isEmpty()) {
+            return;
+        }
+        if (tickBatch.size() == 1) {
+            deliverToAll(EncodedFrame.of(tickBatch.get(0)));
+        } else {
+            Common.BatchPayload batch = new Common.BatchPayload();
+            batch.setPayloads(new java.util.ArrayList<>(tickBatch));
+            deliverToAll(EncodedFrame.of(batch));
+        }
+        tickBatch.clear();
+    }
 
-            // If you want host-only control, check sender here
-            // e.g., if (!isHost(sender)) { sender.sendMessage("Only host can change settings."); return; }
+    // Brief: Parse "[SETTINGS] TICK <ms> [maxBatch]"; 0 ms turns batching off.
+    private boolean tryHandleTick(ServerThread sender, String raw) {
+        String msg = raw == null ? "" : raw.trim();
+        if (msg.startsWith("[SETTINGS]")) msg = msg.substring(10).trim();
+        if (!msg.startsWith("TICK")) return false;
 
-            // Apply + broadcast (this method already broadcasts)
-            setExtraChoices(enabled, mode);
+        String[] parts = msg.split("\\s+");
+        try {
+            int ms = Integer.parseInt(parts[1]);
+            int max = parts.length > 2 ? Integer.parseInt(parts[2]) : maxBatch;
+            setTick(ms, max);
+        } catch (Exception e) {
+            sender.sendMessage("Usage: [SETTINGS] TICK <0|5-1000 ms> [maxBatch]");
         }
+        return true;
+    }
 
-    private Map<Long, ServerThread> getClientsSnapshotSafe() {
-        try { return getClientsSnapshot(); }
-        catch (Throwable t) {
-            System.out.println("[WARN] Room.getClientsSnapshot() not found; add it per MS2 notes.");
-            return java.util.Collections.emptyMap();
-        }
+    private void setTick(int ms, int max) {
+        flushTick(); // don't strand anything queued under the old setting
+        tickMs = ms <= 0 ? 0 : Math.max(5, Math.min(ms, 1000));
+        maxBatch = Math.max(1, max);
+        broadcast(tickMs == 0 ? "Tick batching off"
+                : String.format("Tick batching: %sms (max %s per frame)", tickMs, maxBatch));
     }
 
+    // UCID: lm87 | Date: 2025-08-12
+        // Brief: Parse client-side game setting messages and apply them (host-only guard if you have a host concept).
+        protected void applyGameSetting(ServerThread sender, String msg) {
+            submit(() -> {
+                if (msg == null) return;
+
+                // Expect: "[EXTRA_CHOICES] <0|1|true|false> <FULL|LAST3>"
+                // Be flexible: allow prefixes like "Room[xyz] user: [EXTRA_CHOICES] ..."
+                java.util.regex.Matcher m = EXTRA_CHOICES_PATTERN.matcher(msg);
+                if (!m.find()) {
+                    sender.sendMessage("Invalid setting payload: " + msg);
+                    return;
+                }
+
+                String onStr  = m.group(1);
+                String mode   = m.group(2);
+                boolean enabled = "1".equals(onStr) || "true".equalsIgnoreCase(onStr);
+
+                // If you want host-only control, check sender here
+                // e.g., if (!isHost(sender)) { sender.sendMessage("Only host can change settings."); return; }
+
+                // Apply + broadcast (this method already broadcasts)
+                setExtraChoices(enabled, mode);
+            });
+        }
+
     // UCID: lm87 | Date: 2025-08-10
     // Brief: Round start – init picks, set phase to CHOOSING, and arm the round timer.
-    protected synchronized void onRoundStart() {
-        roundNumber++;
-        phase = Phase.CHOOSING;
-        for (Long id : getClientIds()) {
-            if (!eliminated.getOrDefault(id, false)) {
-                picks.put(id, Choice.NONE);
-            }
-        }
-        for (Long id : clientsInRoom.keySet()) {
-            if (!eliminated.getOrDefault(id, false)) {
-                broadcast("[PENDING] " + id + " 1");
+    protected void onRoundStart() {
+        submit(() -> {
+            roundNumber++;
+            phase = Phase.CHOOSING;
+            for (int slot = players.nextAlive(0); slot >= 0; slot = players.nextAlive(slot + 1)) {
+                players.setChoice(slot, PlayerTable.NO_CHOICE);
+                broadcastEvent(Common.GameEvent.PENDING, players.idAt(slot), 1);
             }
-        }
-        cancelRoundTimer();
-        roundTimerFuture = SCHEDULER.schedule(this::safeEndRound, ROUND_SECONDS, TimeUnit.SECONDS);
-        syncUserList();
-        broadcast("[ROUND_START] " + ROUND_SECONDS);
-        broadcast(String.format("Round %d started. Make your /pick [r|p|s%s]!", 
-            roundNumber, areExtraChoicesAllowedNow() ? "|l|k" : ""));
-        System.out.println("[DEBUG] onRoundStart -> round=" + roundNumber + " phase=" + phase);
+            pickBoard = new PickBoard(roundNumber, players, areExtraChoicesAllowedNow());
+            cancelRoundTimer();
+            final int round = roundNumber;
+            final int seconds = roundSeconds;
+            roundDeadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            roundTimerFuture = RoundScheduler.SHARED.schedule(roundLane, () -> safeEndRound(round),
+                    seconds, TimeUnit.SECONDS);
+            syncUserList();
+            broadcastEvent(Common.GameEvent.ROUND_START, Common.Constants.DEFAULT_CLIENT_ID, seconds);
+            broadcast(String.format("Round %d started. Make your /pick [r|p|s%s]!", 
+                roundNumber, areExtraChoicesAllowedNow() ? "|l|k" : ""));
+            debug("onRoundStart -> round=%s phase=%s", roundNumber, phase, null);
+        });
     }
 
     // UCID: lm87 | Date: 2025-08-10
-    private synchronized void onRoundEnd() {
+    private void onRoundEnd() {
+        submit(() -> {
+            long start = System.nanoTime();
+            FlightEvents.RoundResolved event = new FlightEvents.RoundResolved();
+            event.begin();
+            int round = roundNumber;
+            int playersIn = players.countAlive();
+            roundLosers = 0;
+            try {
+                resolveRound();
+            } finally {
+                Metrics.ROUND_RESOLVE.recordSince(start);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.room = getName();
+                    event.round = round;
+                    event.players = playersIn;
+                    event.losers = roundLosers;
+                    event.ring = ringMode;
+                    event.commit();
+                }
+            }
+        });
+    }
+
+    // Brief: Round resolution proper (on the mailbox); timed by onRoundEnd().
+    private void resolveRound() {
         cancelRoundTimer();
         phase = Phase.RESOLVING;
+        closePickBoard();
         broadcast("Round " + roundNumber + " ending...");
 
-        for (Long id : clientsInRoom.keySet()) {
-            if (eliminated.getOrDefault(id, false)) continue;
-            Choice c = picks.get(id);
-            if (c == null || c == Choice.NONE) {
-                eliminated.put(id, true);
-                lastRoundPick.put(id, c); 
+        for (int slot = players.nextAlive(0); slot >= 0; slot = players.nextAlive(slot + 1)) {
+            if (players.getChoice(slot) == PlayerTable.NO_CHOICE) {
+                long id = players.idAt(slot);
+                players.setEliminated(slot, true);
+                roundLosers++;
                 broadcast(getNameOf(id) + " did not pick and is eliminated!");
-                broadcast("[ELIM] " + id + " 1");
-                broadcast("[PENDING] " + id + " 0");
+                broadcastEvent(Common.GameEvent.ELIMINATED, id, 1);
+                broadcastEvent(Common.GameEvent.PENDING, id, 0);
             }
         }
         syncUserList();
 
-        java.util.List<Long> active = new java.util.ArrayList<>();
-        for (Long id : clientsInRoom.keySet()) {
-            if (!eliminated.getOrDefault(id, false)) active.add(id);
+        if (players.countAlive() <= 1) {
+            finishSession(players.nextAlive(0));
+            return;
         }
 
-        if (active.size() <= 1) {
-            Long winnerId = null;
-            for (Long id : clientsInRoom.keySet()) {
-                if (!eliminated.getOrDefault(id, false)) { winnerId = id; break; }
-            }
-            if (winnerId != null) {
-                points.put(winnerId, points.getOrDefault(winnerId, 0) + 1);
-                broadcast("Game over! Winner: " + getNameOf(winnerId));
-            } else {
-                broadcast("Game over! No players remain. It's a tie.");
-            }
-            syncPoints();
-            onSessionEnd();
+        if (ringMode) {
+            resolveRing();
             return;
         }
 
         // === EXTRA CHOICES FEATURE (RPS-5) ===
-        // Determine winners using RPSLS beats()
-        java.util.Map<Long, Choice> activePicks = new java.util.HashMap<>();
-        java.util.Set<Choice> present = new java.util.HashSet<>();
-        for (Long id : active) {
-            Choice c = picks.get(id);
-            if (c == null) c = Choice.NONE;
-            activePicks.put(id, c);
-            present.add(c);
+        // Determine winners from the RPSLS rule table: one pass for present moves, one lookup
+        java.util.Arrays.fill(roundPresent, 0L);
+        for (int slot = players.nextAlive(0); slot >= 0; slot = players.nextAlive(slot + 1)) {
+            RuleSet.add(roundPresent, players.getChoice(slot));
         }
 
-        if (present.size() == 1) {
+        if (RuleSet.count(roundPresent) == 1) {
+            rememberPicks();
             broadcast("No decisive result this round. It's a stalemate.");
             syncPoints();
             syncUserList();
@@ -548,50 +770,60 @@ private boolean tryHandleExtraChoices(ServerThread sender, String raw) {
             return;
         }
 
-        // Find winning moves (those that beat at least one other present move and aren't beaten by any)
-        java.util.Set<Choice> winningMoves = new java.util.HashSet<>();
-        for (Choice candidate : present) {
-            boolean beaten = false;
-            for (Choice opponent : present) {
-                if (beats(opponent, candidate)) { beaten = true; break; }
+        // winning moves: present moves no other present move beats (none if all are beaten)
+        RULES.winners(roundPresent, roundWinners);
+
+        rememberPicks();
+        for (int slot = players.nextAlive(0); slot >= 0; slot = players.nextAlive(slot + 1)) {
+            if (!RuleSet.contains(roundWinners, players.getChoice(slot))) {
+                long id = players.idAt(slot);
+                players.setEliminated(slot, true);
+                roundLosers++;
+                broadcast("Eliminated: " + getNameOf(id));
+                broadcastEvent(Common.GameEvent.ELIMINATED, id, 1);
+                broadcastEvent(Common.GameEvent.PENDING, id, 0);
             }
-            if (!beaten) winningMoves.add(candidate);
-        }
-
-        java.util.List<Long> losers = new java.util.ArrayList<>();
-        for (var e : activePicks.entrySet()) {
-            if (!winningMoves.contains(e.getValue())) {
-                losers.add(e.getKey());
-            }
-        }
-        for (Long id : losers) {
-            eliminated.put(id, true);
-            broadcast("Eliminated: " + getNameOf(id));
-            broadcast("[ELIM] " + id + " 1");
-            broadcast("[PENDING] " + id + " 0");
         }
 
         syncUserList();
 
-        int survivors = 0;
-        Long lastSurvivor = null;
-        for (Long id : clientsInRoom.keySet()) {
-            if (!eliminated.getOrDefault(id, false)) {
-                survivors++;
-                lastSurvivor = id;
-            }
+        if (players.countAlive() <= 1) {
+            finishSession(players.nextAlive(0));
+        } else {
+            syncPoints();
+            syncUserList();
+            onRoundStart();
         }
+    }
 
-        if (survivors <= 1) {
-            if (lastSurvivor != null) {
-                points.put(lastSurvivor, points.getOrDefault(lastSurvivor, 0) + 1);
-                broadcast("Game over! Winner: " + getNameOf(lastSurvivor));
-            } else {
-                broadcast("Game over! No players remain. It's a tie.");
-            }
+    // UCID: lm87 | Date: 2026-10-17
+    // Brief: Ring round – every adjacent duel at once, announce who fell, close the ring.
+    private void resolveRing() {
+        ring.compact(players); // drop no-pick eliminations and leavers first
+        rememberPicks();
+        int out = ring.battle(RULES, players, loseRule == LoseRule.LOSE_ON_ATTACK);
+        roundLosers += out;
+        if (out == 0) {
+            broadcast("No duel was decisive this round. It's a stalemate.");
             syncPoints();
             syncUserList();
-            onSessionEnd();
+            onRoundStart();
+            return;
+        }
+        for (int i = 0; i < ring.size(); i++) {
+            int slot = ring.seat(i);
+            if (players.isEliminated(slot)) {
+                long id = players.idAt(slot);
+                broadcast("Eliminated: " + getNameOf(id));
+                broadcastEvent(Common.GameEvent.ELIMINATED, id, 1);
+                broadcastEvent(Common.GameEvent.PENDING, id, 0);
+            }
+        }
+        ring.compact(players);
+        syncUserList();
+
+        if (ring.size() <= 1) {
+            finishSession(ring.size() == 1 ? ring.seat(0) : -1);
         } else {
             syncPoints();
             syncUserList();
@@ -599,105 +831,146 @@ private boolean tryHandleExtraChoices(ServerThread sender, String raw) {
         }
     }
 
-    private void syncPoints() {
-        Map<Long, Integer> snapshot = new java.util.LinkedHashMap<>(points);
-        for (ServerThread st : new java.util.ArrayList<>(clientsInRoom.values())) {
-            st.sendPoints(snapshot, "[SCOREBOARD]");
+    // Brief: Closes the open board (late picks now fail their CAS) and copies its picks into the table.
+    private void closePickBoard() {
+        PickBoard board = pickBoard;
+        if (board == null) return;
+        pickBoard = null;
+        board.close();
+        for (int slot = players.nextAlive(0); slot >= 0; slot = players.nextAlive(slot + 1)) {
+            if (slot < board.capacity() && board.idAt(slot) == players.idAt(slot) && board.pickAt(slot) >= 0) {
+                players.setChoice(slot, board.pickAt(slot));
+            }
         }
     }
 
+    // Brief: Runs resolution for the board whose last pick just came in, unless that round already ended.
+    private void resolveIfCurrent(PickBoard board) {
+        submit(() -> {
+            if (pickBoard != board || phase != Phase.CHOOSING) return;
+            cancelRoundTimer();
+            onRoundEnd();
+        });
+    }
+
+    // Brief: Awards the last survivor (slot, or -1 for a tie) and ends the session.
+    private void finishSession(int winnerSlot) {
+        if (winnerSlot >= 0) {
+            players.addPoints(winnerSlot, 1);
+            broadcast("Game over! Winner: " + getNameOf(players.idAt(winnerSlot)));
+        } else {
+            broadcast("Game over! No players remain. It's a tie.");
+        }
+        syncPoints();
+        syncUserList();
+        onSessionEnd();
+    }
+
+    // Brief: Copies this round's picks into last picks for the cooldown rule.
+    private void rememberPicks() {
+        for (int slot = players.nextAlive(0); slot >= 0; slot = players.nextAlive(slot + 1)) {
+            players.setLastChoice(slot, players.getChoice(slot));
+        }
+    }
+
+    private void syncPoints() {
+        sendToAll(EncodedFrame.of(ServerThread.pointsPayload(Common.Constants.DEFAULT_CLIENT_ID, snapshotBoard(),
+                "[SCOREBOARD]")));
+    }
+
     private String getNameOf(Long id) {
-        ServerThread st = getClientsSnapshotSafe().get(id);
+        ServerThread st = getMember(id);
         return (st != null) ? st.getDisplayName() : ("#" + id);
     }
 
-    protected synchronized void endRound() {
-        cancelRoundTimer();
-        phase = Phase.RESOLVING;
-        broadcast(String.format("Round %d ended.", roundNumber));
-        System.out.println("[DEBUG] endRound -> round=" + roundNumber + " phase=" + phase);
+    protected void endRound() {
+        submit(() -> {
+            cancelRoundTimer();
+            phase = Phase.RESOLVING;
+            broadcast(String.format("Round %d ended.", roundNumber));
+            debug("endRound -> round=%s phase=%s", roundNumber, phase, null);
+        });
     }
 
-    private synchronized void safeEndRound() {
-        if (phase != Phase.CHOOSING) return;
-        cancelRoundTimer();
-        onRoundEnd();
+    private void safeEndRound(int round) {
+        submit(() -> {
+            // a deadline that fired just as its round ended early must not end the next one
+            if (phase != Phase.CHOOSING || round != roundNumber) return;
+            cancelRoundTimer();
+            onRoundEnd();
+        });
     }
 
-    protected synchronized void onSessionEnd() {
-        int alive = 0;
-        Long winner = null;
-        for (Long id : getClientIdsSafe()) {
-            if (!eliminated.getOrDefault(id, false)) {
-                alive++;
-                winner = id;
-            }
-        }
-
-        String overMsg = (alive == 1)
-            ? "Game over! Winner: " + getNameOf(winner)
-            : "Game over! No players remain. It's a tie.";
-        broadcast(overMsg);
+    protected void onSessionEnd() {
+        submit(() -> {
+            String overMsg = (players.countAlive() == 1)
+                ? "Game over! Winner: " + getNameOf(players.idAt(players.nextAlive(0)))
+                : "Game over! No players remain. It's a tie.";
+            broadcast(overMsg);
 
-        java.util.List<java.util.Map.Entry<Long,Integer>> entries =
-            new java.util.ArrayList<>(points.entrySet());
-        entries.sort((a,b) -> Integer.compare(b.getValue(), a.getValue()));
+            java.util.List<java.util.Map.Entry<Long,Integer>> entries =
+                new java.util.ArrayList<>(snapshotBoard().entrySet());
+            entries.sort((a,b) -> Integer.compare(b.getValue(), a.getValue()));
 
-        java.util.Map<Long,Integer> finalBoard = new java.util.LinkedHashMap<>();
-        for (var e : entries) finalBoard.put(e.getKey(), e.getValue());
+            java.util.Map<Long,Integer> finalBoard = new java.util.LinkedHashMap<>();
+            for (var e : entries) finalBoard.put(e.getKey(), e.getValue());
 
-        for (ServerThread st : getClientsSnapshotSafe().values()) {
-            st.sendPoints(finalBoard, "[FINAL] " + overMsg);
-        }
+            sendToAll(EncodedFrame.of(ServerThread.pointsPayload(Common.Constants.DEFAULT_CLIENT_ID, finalBoard,
+                    "[FINAL] " + overMsg)));
 
-        phase = Phase.IDLE;
-        roundNumber = 0;
-        picks.clear();
-        eliminated.clear();
-        for (Long id : getClientIdsSafe()) {
-            broadcast("[ELIM] " + id + " 0");
-            broadcast("[PENDING] " + id + " 0");
-        }
-        syncUserList();
-        lastRoundPick.clear();
-        broadcast("Session reset. Use the ready flow to start a new game.");
+            closePickBoard();
+            phase = Phase.IDLE;
+            roundNumber = 0;
+            players.clearChoices();
+            players.clearEliminated();
+            players.clearLastChoices();
+            ring.clear();
+            for (int slot = players.nextSlot(0); slot >= 0; slot = players.nextSlot(slot + 1)) {
+                long id = players.idAt(slot);
+                broadcastEvent(Common.GameEvent.ELIMINATED, id, 0);
+                broadcastEvent(Common.GameEvent.PENDING, id, 0);
+            }
+            syncUserList();
+            broadcast("Session reset. Use the ready flow to start a new game.");
+        });
     }
 
     // UCID: lm87 | Date: 2025-08-10
-    // Brief: Validate /pick, record it, announce, and check if the round should end.
+    // Brief: Validate /pick and record it on the picker's own thread (one CAS, no mailbox hop);
+    // only the announcement, and resolution for the last pick, go through the mailbox.
     @Override
-    protected synchronized void handlePick(ServerThread sender, String rawChoice) {
-        if (phase != Phase.CHOOSING) {
+    protected void handlePick(ServerThread sender, String rawChoice) {
+        final PickBoard board = pickBoard;
+        if (board == null) {
             sender.sendMessage("You cannot pick right now. Wait for the next round.");
             return;
         }
         final long id = sender.getClientId();
-
-        if (isSpectator(id)) return;
-        if (eliminated.getOrDefault(id, false)) {
+        final int slot = board.slotOf(id);
+        if (slot < 0) {
             sender.sendMessage("You're eliminated this session and are now a spectator.");
             return;
         }
-        if (picks.get(id) != null && picks.get(id) != Choice.NONE) {
+        if (board.pickAt(slot) >= 0) {
             sender.sendMessage("You already picked for this round.");
             return;
         }
 
         Choice choice;
-        switch (rawChoice.trim().toLowerCase()) {
+        switch (rawChoice == null ? "" : rawChoice.trim().toLowerCase()) {
             case "r": choice = Choice.ROCK; break;
             case "p": choice = Choice.PAPER; break;
             case "s": choice = Choice.SCISSORS; break;
             // === EXTRA CHOICES FEATURE (RPS-5) ===
             case "l": 
-                if (!areExtraChoicesAllowedNow()) {
+                if (!board.areExtrasAllowed()) {
                     sender.sendMessage("Lizard is not allowed right now.");
                     return;
                 }
                 choice = Choice.LIZARD;
                 break;
             case "k":
-                if (!areExtraChoicesAllowedNow()) {
+                if (!board.areExtrasAllowed()) {
                     sender.sendMessage("Spock is not allowed right now.");
                     return;
                 }
@@ -705,63 +978,71 @@ private boolean tryHandleExtraChoices(ServerThread sender, String raw) {
                 break;
             default:
                 sender.sendMessage("Invalid pick. Use /pick <r|p|s" + 
-                    (areExtraChoicesAllowedNow() ? "|l|k" : "") + ">");
+                    (board.areExtrasAllowed() ? "|l|k" : "") + ">");
                 return;
         }
 
         // === COOLDOWN ENFORCEMENT ===
-        if (cooldownEnabled) {
-            Choice last = lastRoundPick.get(id);
-            if (last != null && last == choice) {
-                sender.sendMessage("That option is on cooldown for you. Pick something different this round.");
-                return;
-            }
-    }
-
-        if(choice == null){
-            choice = Choice.NONE;
+        if (cooldownEnabled && board.lastPickAt(slot) == choice.ordinal()) {
+            sender.sendMessage("That option is on cooldown for you. Pick something different this round.");
+            return;
         }
-        picks.put(id, choice);
-        
-        broadcast(getNameOf(id) + " picked their choice.");
-        broadcast("[PENDING] " + id + " 0");
-        syncUserList();
 
-        if (allActivePicked()) {
-            cancelRoundTimer();
-            onRoundEnd();
-        } else {
-            broadcast(sender.getClientName() + "#" + id + " picked their choice.");
+        final PickBoard.Result result = board.submit(slot, (byte) choice.ordinal());
+        switch (result) {
+            case CLOSED:
+                sender.sendMessage("You cannot pick right now. Wait for the next round.");
+                return;
+            case TAKEN:
+                sender.sendMessage("You already picked for this round.");
+                return;
+            default:
+                break;
+        }
+        final byte picked = (byte) choice.ordinal();
+        submit(() -> {
+            if (pickBoard != board) return; // the round ended first; its resolution already used the pick
+            if (players.idAt(slot) == id) {
+                players.setChoice(slot, picked);
+            }
+            broadcast(getNameOf(id) + " picked their choice.");
+            broadcastEvent(Common.GameEvent.PENDING, id, 0);
+            syncUserList();
+            if (result != PickBoard.Result.LAST) {
+                broadcast(sender.getClientName() + "#" + id + " picked their choice.");
+            }
+        });
+        if (result == PickBoard.Result.LAST) {
+            resolveIfCurrent(board); // exactly one picker gets here per round
         }
     }
 
+    // UCID: lm87 | Date: 2026-10-17
+    // Brief: Sends only what changed since the last sync (see UserListVersions), one shared frame.
     private void syncUserList() {
-        java.util.Map<Long,Integer> snapshotPoints = new java.util.LinkedHashMap<>(points);
-        java.util.Map<Long,Boolean> snapshotElim = new java.util.LinkedHashMap<>(eliminated);
-        java.util.Map<Long,Boolean> snapshotPending = new java.util.LinkedHashMap<>();
-        java.util.Map<Long,Boolean> specSnap   = new java.util.LinkedHashMap<>(spectators);
-
-
-        for (Long id : clientsInRoom.keySet()) {
-            boolean elim = eliminated.getOrDefault(id, false);
-            boolean pend = (phase == Phase.CHOOSING) && !elim &&
-                        (picks.getOrDefault(id, Choice.NONE) == Choice.NONE);
-
-            snapshotPending.put(id, (!away.getOrDefault(id,false)) && pend);
+        if (tickMs > 0) {
+            userListDirty = true; // one delta per tick no matter how many changes
+            armTick();
+            return;
         }
-        for (ServerThread st : new java.util.ArrayList<>(clientsInRoom.values())) {
-            st.sendUserList(snapshotPoints, snapshotElim, snapshotPending, new java.util.HashMap<>(away), specSnap);
+        EncodedFrame frame = nextUserListDelta();
+        if (frame != null) {
+            sendToAll(frame);
         }
     }
 
-    private boolean allActivePicked() {
-        for (Long id : clientsInRoom.keySet()) {
-            if (!eliminated.getOrDefault(id, false) && !away.getOrDefault(id, false)) {
-                if (picks.getOrDefault(id, Choice.NONE) == Choice.NONE) {
-                    return false;
-                }
+    private EncodedFrame nextUserListDelta() {
+        return userListVersions.update(players, phase == Phase.CHOOSING);
+    }
+
+    // Brief: A member saw a version gap; send what it missed (or a keyframe).
+    @Override
+    protected void handleUserListResync(ServerThread sender, long memberVersion) {
+        submit(() -> {
+            if (!hasMember(sender.getClientId())) return;
+            for (EncodedFrame frame : userListVersions.since(memberVersion)) {
+                sender.sendFrame(frame);
             }
-        }
-        return true;
+        });
     }
 }
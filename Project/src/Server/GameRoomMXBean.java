@@ -0,0 +1,35 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: JMX view of a game room: round progress plus round controls for ops.
+package Server;
+
+public interface GameRoomMXBean extends RoomMXBean {
+    int getRoundNumber();
+
+    /**
+     * @return seconds until the open round's deadline (0 when no round is open)
+     */
+    long getRoundSecondsRemaining();
+
+    /**
+     * @return share of the open round's players that have picked or been
+     *         excused, 0..1 (0 when no round is open)
+     */
+    double getPickCompletion();
+
+    /**
+     * @return round length in seconds used for new rounds
+     */
+    int getRoundSeconds();
+
+    /**
+     * Changes the round length from the next round on
+     *
+     * @param seconds 1 or more
+     */
+    void setRoundSeconds(int seconds);
+
+    /**
+     * Resolves the open round now with the picks made so far (no-op if none is open)
+     */
+    void forceEndRound();
+}
@@ -0,0 +1,211 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: One server-wide timing wheel for connection deadlines (handshake, idle, auto-away).
+package Server;
+
+import Common.Log;
+import Common.TextFX.Color;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A hashed timing wheel: a ring of buckets advanced by a single daemon thread
+ * once per tick. Scheduling and cancelling are O(1), so hundreds of thousands
+ * of pending timeouts cost one small node each instead of a thread (the old
+ * per-connection java.util.Timer) or a heap entry.
+ * <p>
+ * Note: Expired tasks run on the wheel thread and must be short; anything
+ * that takes a room lock or touches a socket should hand itself off.
+ * Deadlines are rounded up to the tick, so this is for coarse timeouts, not
+ * round timers.
+ * </p>
+ */
+public class HashedWheelTimer {
+    // shared by every connection on this server
+    public static final HashedWheelTimer SHARED = new HashedWheelTimer("TimerWheel", 100, 512);
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    // new timeouts are handed to the wheel thread so only it touches the buckets
+    private final ConcurrentLinkedQueue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final long startNanos;
+    private long tick; // only touched by the wheel thread
+
+    /**
+     * @param name       thread name
+     * @param tickMillis resolution of the wheel
+     * @param ticksPerWheel number of buckets (rounded up to a power of two)
+     */
+    public HashedWheelTimer(String name, long tickMillis, int ticksPerWheel) {
+        if (tickMillis <= 0 || ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("tickMillis and ticksPerWheel must be positive");
+        }
+        int size = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        size = Math.max(size, 1);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.startNanos = System.nanoTime();
+        Thread worker = new Thread(this::runWheel, name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Schedules task to run once after delay
+     *
+     * @param task
+     * @param delay
+     * @param unit
+     * @return handle that can cancel the task
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        long deadline = System.nanoTime() - startNanos + unit.toNanos(Math.max(0, delay));
+        Timeout timeout = new Timeout(task, deadline);
+        pending.incrementAndGet();
+        incoming.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * @return timeouts scheduled but not yet fired or cancelled
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    private void runWheel() {
+        while (true) {
+            long deadline = tickNanos * (tick + 1);
+            long sleepNanos = deadline - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                continue;
+            }
+            transferIncoming();
+            wheel[(int) (tick & mask)].expire();
+            tick++;
+        }
+    }
+
+    private void transferIncoming() {
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            if (timeout.state.get() != Timeout.WAITING) {
+                continue; // cancelled before it reached the wheel
+            }
+            long ticks = Math.max(timeout.deadline / tickNanos, tick); // never schedule into the past
+            timeout.remainingRounds = (ticks - tick) / wheel.length;
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * Handle for one scheduled task
+     */
+    public final class Timeout {
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private long remainingRounds;
+        private Timeout next, prev;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the task if it hasn't fired yet; the node is unlinked lazily
+         * by the wheel thread
+         *
+         * @return true if this call cancelled it
+         */
+        public boolean cancel() {
+            if (state.compareAndSet(WAITING, CANCELLED)) {
+                pending.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(WAITING, EXPIRED)) {
+                return;
+            }
+            pending.decrementAndGet();
+            try {
+                task.run();
+            } catch (Throwable t) {
+                Log.error(Color.RED, "TimerWheel", null, "Timer task failed", t);
+            }
+        }
+    }
+
+    /**
+     * Doubly linked list of timeouts hashed to the same slot
+     */
+    private static final class Bucket {
+        private Timeout head, tail;
+
+        void add(Timeout timeout) {
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire() {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    timeout.expire();
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = timeout.next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.next = timeout.prev = null;
+        }
+    }
+}
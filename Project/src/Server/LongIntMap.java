@@ -0,0 +1,139 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Open-addressing long -> int map (clientId -> slot) with no boxing on get/put/remove.
+package Server;
+
+/**
+ * Linear probing over parallel key/value arrays, kept at most half full so
+ * probes stay short; removal shifts the following run back instead of
+ * leaving tombstones. Lookups on the per-pick path never allocate.
+ * <p>
+ * Note: Key 0 marks an empty cell, so 0 can't be stored (client ids start
+ * at 1; PlayerTable and PickBoard already treat id 0 as "nobody").
+ * Not thread-safe.
+ * </p>
+ */
+public final class LongIntMap {
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public LongIntMap() {
+        this(16);
+    }
+
+    /**
+     * @param expected entries to hold before the first resize
+     */
+    public LongIntMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(8, expected * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private int home(long key) {
+        long h = key * 0x9E3779B97F4A7C15L; // spread sequential ids over the table
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * @return the value for key, or missing if absent
+     */
+    public int get(long key, int missing) {
+        for (int i = home(key);; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == 0) {
+                return missing;
+            }
+            if (k == key) {
+                return values[i];
+            }
+        }
+    }
+
+    private int indexOf(long key) {
+        for (int i = home(key);; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == 0) {
+                return -1;
+            }
+            if (k == key) {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * Inserts or replaces the value for key
+     */
+    public void put(long key, int value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Key 0 is reserved for empty cells");
+        }
+        int i = home(key);
+        for (;; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                values[i] = value;
+                return;
+            }
+            if (k == 0) {
+                break;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * @return the removed value, or missing if key wasn't present
+     */
+    public int remove(long key, int missing) {
+        int i = key == 0 ? -1 : indexOf(key);
+        if (i < 0) {
+            return missing;
+        }
+        int removed = values[i];
+        // backward-shift: pull later entries of the run into the hole unless their
+        // home lies cyclically after the hole (they'd become unreachable)
+        for (int j = (i + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+            int h = home(keys[j]);
+            boolean stays = i <= j ? (i < h && h <= j) : (i < h || h <= j);
+            if (!stays) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = 0;
+        size--;
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long k = oldKeys[i];
+            if (k != 0) {
+                int j = home(k);
+                while (keys[j] != 0) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = k;
+                values[j] = oldValues[i];
+            }
+        }
+    }
+}
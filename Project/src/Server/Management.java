@@ -0,0 +1,88 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Registers the Server and each Room with the platform MBean server (jconsole / jmc / jcmd).
+package Server;
+
+import Common.Log;
+import Common.TextFX.Color;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Names are {@code Server:type=Server} and {@code Server:type=Room,name="<room>"}.
+ * Failures are logged and otherwise ignored; management must never stop a
+ * room from opening or closing.
+ */
+public final class Management {
+    private static final MBeanServer MBEANS = ManagementFactory.getPlatformMBeanServer();
+    // which Room each registered room name belongs to (guarded by the class lock)
+    private static final Map<ObjectName, Room> OWNERS = new HashMap<>();
+
+    private Management() {
+    }
+
+    public static void registerServer(ServerMXBean bean) {
+        register(serverName(), bean);
+    }
+
+    public static synchronized void register(Room room) {
+        ObjectName name = roomName(room.getName());
+        if (name != null) {
+            OWNERS.put(name, room);
+            register(name, room.createMBean());
+        }
+    }
+
+    /**
+     * Only removes the bean if it is still this room's; a newer room that
+     * reused the name keeps its own
+     */
+    public static synchronized void unregister(Room room) {
+        ObjectName name = roomName(room.getName());
+        if (name == null || !OWNERS.remove(name, room)) {
+            return;
+        }
+        try {
+            if (MBEANS.isRegistered(name)) {
+                MBEANS.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            Log.error(Color.RED, "JMX", room.getName(), "Couldn't unregister", e);
+        }
+    }
+
+    private static synchronized void register(ObjectName name, Object bean) {
+        if (name == null) {
+            return;
+        }
+        try {
+            if (MBEANS.isRegistered(name)) {
+                MBEANS.unregisterMBean(name); // a closed room's name reused before it was removed
+            }
+            MBEANS.registerMBean(bean, name);
+        } catch (JMException e) {
+            Log.error(Color.RED, "JMX", name, "Couldn't register", e);
+        }
+    }
+
+    private static ObjectName serverName() {
+        try {
+            return new ObjectName("Server:type=Server");
+        } catch (JMException e) {
+            return null;
+        }
+    }
+
+    private static ObjectName roomName(String room) {
+        try {
+            return new ObjectName("Server:type=Room,name=" + ObjectName.quote(room));
+        } catch (JMException e) {
+            Log.error(Color.RED, "JMX", room, "Bad room name for JMX", e);
+            return null;
+        }
+    }
+}
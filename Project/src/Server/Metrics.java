@@ -0,0 +1,151 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Server-wide counters, gauges and latency histograms, rendered as plain text for the stats endpoint.
+package Server;
+
+import Common.PayloadType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Hot-path metrics are fixed fields created at class load (one counter or
+ * histogram per PayloadType ordinal, one histogram per timed path), so
+ * recording is an array index plus a LongAdder/histogram update and never
+ * allocates or looks anything up by name. Gauges are only read when the
+ * report is rendered, so they may walk rooms and allocate there.
+ * <p>
+ * Timings: {@code process.<TYPE>} is ServerThread.processPayload() per
+ * payload type (for room actions that is the hand-off to the mailbox, not the
+ * action itself), {@code room.fanout} is one broadcast to a room's members
+ * (Room.relay() and every other fanOut()), {@code round.resolve} is
+ * GameRoom.onRoundEnd() on the room's mailbox.
+ * </p>
+ */
+public final class Metrics {
+    private static final PayloadType[] TYPES = PayloadType.values();
+
+    public static final LongAdder[] PAYLOADS_IN = adders(TYPES.length);
+    public static final LongAdder[] PAYLOADS_OUT = adders(TYPES.length);
+    public static final LongAdder BYTES_IN = new LongAdder();
+    public static final LongAdder BYTES_OUT = new LongAdder();
+    public static final LatencyHistogram[] PROCESS = histograms(TYPES.length);
+    public static final LatencyHistogram FAN_OUT = new LatencyHistogram();
+    public static final LatencyHistogram ROUND_RESOLVE = new LatencyHistogram();
+
+    private static final Map<String, LongSupplier> GAUGES = new ConcurrentSkipListMap<>();
+    // gauges with a label per entry (e.g. rooms by phase); computed on read
+    private static final Map<String, Supplier<Map<String, Long>>> GAUGE_GROUPS = new ConcurrentSkipListMap<>();
+
+    private Metrics() {
+    }
+
+    private static LongAdder[] adders(int n) {
+        LongAdder[] a = new LongAdder[n];
+        for (int i = 0; i < n; i++) {
+            a[i] = new LongAdder();
+        }
+        return a;
+    }
+
+    private static LatencyHistogram[] histograms(int n) {
+        LatencyHistogram[] h = new LatencyHistogram[n];
+        for (int i = 0; i < n; i++) {
+            h[i] = new LatencyHistogram();
+        }
+        return h;
+    }
+
+    // ----- Recording (allocation-free) -----
+
+    public static void payloadIn(PayloadType type, int frameBytes) {
+        PAYLOADS_IN[type.ordinal()].increment();
+        BYTES_IN.add(frameBytes);
+    }
+
+    public static void payloadOut(PayloadType type, int frameBytes) {
+        PAYLOADS_OUT[type.ordinal()].increment();
+        BYTES_OUT.add(frameBytes);
+    }
+
+    public static void processed(PayloadType type, long startNanos) {
+        PROCESS[type.ordinal()].recordSince(startNanos);
+    }
+
+    // ----- Gauges -----
+
+    /**
+     * Registers (or replaces) a gauge read each time the report is rendered
+     */
+    public static void gauge(String name, LongSupplier value) {
+        GAUGES.put(name, value);
+    }
+
+    /**
+     * Registers a labelled gauge; each entry is reported as {@code name{label}}
+     */
+    public static void gaugeGroup(String name, Supplier<Map<String, Long>> values) {
+        GAUGE_GROUPS.put(name, values);
+    }
+
+    // ----- Report -----
+
+    /**
+     * @return every non-zero metric, one per line ("name value" or a histogram summary)
+     */
+    public static String render() {
+        StringBuilder sb = new StringBuilder(4096);
+        for (Map.Entry<String, LongSupplier> g : GAUGES.entrySet()) {
+            line(sb, g.getKey(), g.getValue().getAsLong());
+        }
+        for (Map.Entry<String, Supplier<Map<String, Long>>> group : GAUGE_GROUPS.entrySet()) {
+            for (Map.Entry<String, Long> e : group.getValue().get().entrySet()) {
+                line(sb, group.getKey() + "{" + e.getKey() + "}", e.getValue());
+            }
+        }
+        line(sb, "bytes.in", BYTES_IN.sum());
+        line(sb, "bytes.out", BYTES_OUT.sum());
+        for (PayloadType type : TYPES) {
+            long in = PAYLOADS_IN[type.ordinal()].sum();
+            long out = PAYLOADS_OUT[type.ordinal()].sum();
+            if (in > 0) {
+                line(sb, "payloads.in{" + type + "}", in);
+            }
+            if (out > 0) {
+                line(sb, "payloads.out{" + type + "}", out);
+            }
+        }
+        for (PayloadType type : TYPES) {
+            histogram(sb, "process{" + type + "}", PROCESS[type.ordinal()]);
+        }
+        histogram(sb, "room.fanout", FAN_OUT);
+        histogram(sb, "round.resolve", ROUND_RESOLVE);
+        return sb.toString();
+    }
+
+    private static void line(StringBuilder sb, String name, long value) {
+        sb.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void histogram(StringBuilder sb, String name, LatencyHistogram h) {
+        long count = h.getCount();
+        if (count == 0) {
+            return;
+        }
+        sb.append(name)
+                .append(" count=").append(count)
+                .append(" mean_us=").append(String.format("%.1f", h.getMean() / 1000.0))
+                .append(" p50_us=").append(micros(h.getPercentile(50)))
+                .append(" p90_us=").append(micros(h.getPercentile(90)))
+                .append(" p99_us=").append(micros(h.getPercentile(99)))
+                .append(" p999_us=").append(micros(h.getPercentile(99.9)))
+                .append(" max_us=").append(micros(h.getMax()))
+                .append('\n');
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1f", nanos / 1000.0);
+    }
+}
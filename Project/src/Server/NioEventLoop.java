@@ -0,0 +1,135 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: One selector thread that services reads/writes for many NIO connections.
+package Server;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import Common.Log;
+import Common.TextFX.Color;
+
+/**
+ * Event loop used by NioServer. Connections are pinned to a single loop for
+ * their lifetime so all channel I/O for a connection happens on one thread.
+ * Other threads (room relays, timers) only enqueue work and wake the selector.
+ */
+public class NioEventLoop implements Runnable {
+    private final String name;
+    private final Selector selector;
+    private final Queue<NioServerThread> pendingRegistrations = new ConcurrentLinkedQueue<>();
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private volatile boolean isRunning = true;
+    private Thread thread;
+
+    private void info(String message) {
+        Log.log(Log.Level.INFO, Color.GREEN, name, null, message);
+    }
+
+    public NioEventLoop(String name) throws IOException {
+        this.name = name;
+        this.selector = Selector.open();
+    }
+
+    /**
+     * Starts the loop on its own platform thread
+     */
+    public void start() {
+        thread = new Thread(this, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return true when called from this loop's thread
+     */
+    public boolean inEventLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Hands a freshly accepted connection to this loop
+     * 
+     * @param connection
+     */
+    public void register(NioServerThread connection) {
+        pendingRegistrations.add(connection);
+        selector.wakeup();
+    }
+
+    /**
+     * Runs the task on the loop thread (immediately if already on it)
+     * 
+     * @param task
+     */
+    public void execute(Runnable task) {
+        if (inEventLoop()) {
+            task.run();
+            return;
+        }
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    public void shutdown() {
+        isRunning = false;
+        selector.wakeup();
+    }
+
+    private void close(NioServerThread connection) {
+        try {
+            connection.closeConnection();
+        } catch (Throwable t) {
+            Log.error(Color.RED, name, connection.getClientId(), "Couldn't close connection", t);
+        }
+    }
+
+    @Override
+    public void run() {
+        info("Event loop starting");
+        while (isRunning) {
+            try {
+                selector.select();
+                NioServerThread connection;
+                while ((connection = pendingRegistrations.poll()) != null) {
+                    connection.onRegistered(selector);
+                }
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    task.run();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    NioServerThread ready = (NioServerThread) key.attachment();
+                    try {
+                        if (key.isValid() && key.isReadable()) {
+                            ready.onReadable();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            ready.flushOutbound();
+                        }
+                    } catch (Throwable t) {
+                        // never let a single bad connection take the whole loop down; drop just that one
+                        Log.error(Color.RED, name, ready.getClientId(), "Unexpected error on connection", t);
+                        close(ready);
+                    }
+                }
+            } catch (IOException e) {
+                Log.error(Color.RED, name, null, "Selector failure", e);
+            } catch (Throwable t) {
+                Log.error(Color.RED, name, null, "Unexpected error in event loop", t);
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            // closing anyway
+        }
+        info("Event loop stopped");
+    }
+}
@@ -0,0 +1,82 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Optional selector-based engine; accepts connections and spreads them over a few event loops.
+package Server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import Common.Log;
+import Common.TextFX.Color;
+
+/**
+ * Replacement for the ServerSocket accept loop. Instead of a thread per client
+ * a small fixed set of NioEventLoops handles all connections.
+ */
+public class NioServer {
+    private final int port;
+    private final NioEventLoop[] loops;
+    private final Consumer<ServerThread> onInitializationComplete;
+    private final AtomicInteger activeConnections; // shared with the thread engines' count
+    private volatile boolean isRunning = true;
+    private int nextLoop = 0;
+
+    private void info(String message) {
+        Log.log(Log.Level.INFO, Color.YELLOW, "NioServer", null, message);
+    }
+
+    /**
+     * @param port
+     * @param loopCount                number of event loop threads (>= 1)
+     * @param onInitializationComplete same callback ServerThread uses
+     * @param activeConnections        open connections; counted up on accept,
+     *                                 down when each connection is released
+     * @throws IOException
+     */
+    public NioServer(int port, int loopCount, Consumer<ServerThread> onInitializationComplete,
+            AtomicInteger activeConnections) throws IOException {
+        this.port = port;
+        this.onInitializationComplete = onInitializationComplete;
+        this.activeConnections = activeConnections;
+        this.loops = new NioEventLoop[Math.max(1, loopCount)];
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new NioEventLoop("EventLoop-" + i);
+        }
+    }
+
+    /**
+     * Starts the event loops and blocks accepting connections
+     * 
+     * @throws IOException
+     */
+    public void run() throws IOException {
+        for (NioEventLoop loop : loops) {
+            loop.start();
+        }
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+            serverChannel.bind(new InetSocketAddress(port));
+            info(String.format("Listening on port %s with %s event loops", port, loops.length));
+            while (isRunning) {
+                SocketChannel channel = serverChannel.accept(); // blocking, the loops do the rest
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                NioEventLoop loop = loops[nextLoop];
+                nextLoop = (nextLoop + 1) % loops.length;
+                activeConnections.incrementAndGet();
+                loop.register(new NioServerThread(channel, loop, activeConnections, onInitializationComplete));
+            }
+        } finally {
+            shutdown();
+        }
+    }
+
+    public void shutdown() {
+        isRunning = false;
+        for (NioEventLoop loop : loops) {
+            loop.shutdown();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: ServerThread handle whose socket I/O is driven by an NioEventLoop instead of its own thread.
+package Server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import Common.Constants;
+import Common.Log;
+import Common.Payload;
+import Common.PayloadFraming;
+import Common.PayloadType;
+import Common.TextFX.Color;
+
+/**
+ * Rooms only ever talk to ServerThread, so this subclass keeps the exact same
+ * API and just swaps the transport: reads are parsed from non-blocking buffers
+ * and the event loop is the writer that drains the outbound queue. run() is
+ * never executed for these connections.
+ */
+public class NioServerThread extends ServerThread {
+    private static final int INITIAL_READ_BUFFER = 16 * 1024;
+    private static final int MAX_WRITE_BATCH = 64; // frames per gathering write
+
+    private final SocketChannel channel;
+    private final NioEventLoop loop;
+    private ByteBuffer readBuffer = ByteBuffer.allocate(INITIAL_READ_BUFFER);
+    // frames taken off the outbound queue but not fully written yet (loop thread only)
+    private final ByteBuffer[] writeBatch = new ByteBuffer[MAX_WRITE_BATCH];
+    private int batchStart = 0;
+    private int batchEnd = 0;
+    private SelectionKey key;
+    private final AtomicInteger activeConnections;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    protected NioServerThread(SocketChannel channel, NioEventLoop loop, AtomicInteger activeConnections,
+            Consumer<ServerThread> onInitializationComplete) {
+        super(channel.socket(), null, onInitializationComplete);
+        this.channel = channel;
+        this.loop = loop;
+        this.activeConnections = activeConnections;
+    }
+
+    // counts this connection out of activeConnections exactly once, whichever path closed it
+    private void release() {
+        if (released.compareAndSet(false, true)) {
+            activeConnections.decrementAndGet();
+        }
+    }
+
+    /**
+     * Called on the loop thread once the channel is ready to be selected
+     * 
+     * @param selector
+     */
+    protected void onRegistered(Selector selector) {
+        try {
+            key = channel.register(selector, SelectionKey.OP_READ, this);
+            isRunning = true;
+            info("Connection registered with " + Thread.currentThread().getName());
+            armHandshakeTimeout();
+        } catch (ClosedChannelException e) {
+            info("Channel closed before registration");
+            release();
+        }
+    }
+
+    /**
+     * Reads what's available and dispatches every complete frame
+     */
+    protected void onReadable() {
+        try {
+            if (channel.read(readBuffer) < 0) {
+                onClosed("My Client disconnected");
+                return;
+            }
+        } catch (IOException e) {
+            onClosed("IO exception while reading from client");
+            return;
+        }
+        readBuffer.flip();
+        boolean grown = false;
+        try {
+            while (isRunning && readBuffer.remaining() >= PayloadFraming.HEADER_BYTES) {
+                int length = readBuffer.getInt(readBuffer.position());
+                PayloadFraming.checkLength(length);
+                int frameBytes = PayloadFraming.HEADER_BYTES + length;
+                if (readBuffer.remaining() < frameBytes) {
+                    if (frameBytes > readBuffer.capacity()) {
+                        growReadBuffer(frameBytes); // leaves the buffer ready for the next read
+                        grown = true;
+                    }
+                    break;
+                }
+                int bodyStart = readBuffer.position() + PayloadFraming.HEADER_BYTES;
+                readBuffer.position(bodyStart + length); // consumed even if handling it fails
+                onFrame(readBuffer.array(), bodyStart, length);
+            }
+        } catch (IOException e) {
+            onClosed("Bad frame from client: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // e.g. an action before CLIENT_CONNECT; drop this connection only, never replay the frame
+            Log.error(Color.RED, "Thread", getClientId(), "Error processing frame", e);
+            onClosed("Closing connection after a bad frame");
+        } finally {
+            if (!grown) {
+                readBuffer.compact();
+            }
+        }
+    }
+
+    private void growReadBuffer(int frameBytes) {
+        int capacity = Math.min(Constants.MAX_FRAME_BYTES + PayloadFraming.HEADER_BYTES,
+                Math.max(frameBytes, readBuffer.capacity() * 2));
+        ByteBuffer bigger = ByteBuffer.allocate(capacity);
+        bigger.put(readBuffer);
+        readBuffer = bigger;
+    }
+
+    /**
+     * The event loop is this connection's writer
+     */
+    @Override
+    protected void startWriter() {
+        loop.execute(this::flushOutbound);
+    }
+
+    /**
+     * Eviction/close from any thread is finished on the loop thread so the room
+     * is told about it exactly once
+     */
+    @Override
+    protected void closeConnection() {
+        loop.execute(() -> onClosed("Connection closed by server"));
+    }
+
+    /**
+     * Writes as many queued frames as the socket accepts using gathering writes;
+     * only called on the loop thread while holding the outbound writer claim
+     */
+    protected void flushOutbound() {
+        if (key == null || !key.isValid()) {
+            return;
+        }
+        try {
+            while (true) {
+                if (batchStart == batchEnd) {
+                    batchStart = 0;
+                    batchEnd = 0;
+                    byte[] frame;
+                    while (batchEnd < MAX_WRITE_BATCH && (frame = outbound.poll()) != null) {
+                        writeBatch[batchEnd++] = ByteBuffer.wrap(frame);
+                    }
+                    if (batchEnd == 0) {
+                        key.interestOps(SelectionKey.OP_READ);
+                        if (!outbound.releaseWriter()) {
+                            return;
+                        }
+                        continue; // more frames arrived while releasing
+                    }
+                }
+                channel.write(writeBatch, batchStart, batchEnd - batchStart);
+                while (batchStart < batchEnd && !writeBatch[batchStart].hasRemaining()) {
+                    writeBatch[batchStart++] = null;
+                }
+                if (batchStart < batchEnd) {
+                    // socket buffer is full; keep the writer claim and resume when writable
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            onClosed("Error sending message to client (most likely disconnected)");
+        }
+    }
+
+    /**
+     * The loop never waits on a room: the leave is queued on the room's
+     * mailbox and cleanup() runs after it, off this thread
+     */
+    private void onClosed(String reason) {
+        if (!isRunning) {
+            return;
+        }
+        info(reason);
+        isRunning = false;
+        if (key != null) {
+            key.cancel(); // no more reads/writes while the room catches up
+        }
+        Room room = currentRoom;
+        if (room != null) {
+            room.handleDisconnect(this, this::cleanup);
+        } else {
+            cleanup();
+        }
+    }
+
+    @Override
+    protected void processPayload(Payload payload) {
+        if (payload.getPayloadType() == PayloadType.DISCONNECT) {
+            onClosed("Client requested disconnect");
+            return;
+        }
+        super.processPayload(payload);
+    }
+
+    @Override
+    protected void cleanup() {
+        loop.execute(() -> {
+            batchStart = 0;
+            batchEnd = 0;
+            java.util.Arrays.fill(writeBatch, null);
+        });
+        super.cleanup(); // closing the socket adaptor closes the channel and cancels the key
+        release();
+    }
+}
@@ -0,0 +1,131 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Bounded per-connection queue of encoded frames waiting to be written to the socket.
+package Server;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Any thread may offer() without blocking; exactly one writer drains at a time.
+ * The writer "claim" lets producers start a drain only when none is running,
+ * so a burst of sends turns into one drain pass and one flush.
+ * <p>
+ * A consumer is considered slow when the queue is over its frame/byte budget
+ * or when it has had data waiting without any drain progress for
+ * SLOW_CONSUMER_MILLIS.
+ * </p>
+ */
+public class OutboundQueue {
+    public static final int DEFAULT_MAX_FRAMES = 1024;
+    public static final long DEFAULT_MAX_BYTES = 4L * 1024 * 1024;
+    public static final long SLOW_CONSUMER_MILLIS = 10_000;
+
+    private final Queue<byte[]> frames = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final AtomicBoolean writerActive = new AtomicBoolean();
+    private final int maxFrames;
+    private final long maxBytes;
+    private volatile long lastProgressNanos = System.nanoTime();
+    private volatile int highWatermark = 0;
+
+    public OutboundQueue() {
+        this(DEFAULT_MAX_FRAMES, DEFAULT_MAX_BYTES);
+    }
+
+    public OutboundQueue(int maxFrames, long maxBytes) {
+        this.maxFrames = maxFrames;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Adds a frame unless the consumer is too far behind
+     * 
+     * @param frame header + body
+     * @return false if the consumer is slow and should be evicted
+     */
+    public boolean offer(byte[] frame) {
+        int queued = depth.get();
+        if (queued >= maxFrames || queuedBytes.get() + frame.length > maxBytes || isStalled()) {
+            return false;
+        }
+        if (queued == 0) {
+            // nothing was waiting, so the stall clock starts now
+            lastProgressNanos = System.nanoTime();
+        }
+        frames.add(frame);
+        queuedBytes.addAndGet(frame.length);
+        int now = depth.incrementAndGet();
+        if (now > highWatermark) {
+            highWatermark = now;
+        }
+        return true;
+    }
+
+    /**
+     * @return next frame or null; only the writer holding the claim should call
+     *         this
+     */
+    public byte[] poll() {
+        byte[] frame = frames.poll();
+        if (frame != null) {
+            depth.decrementAndGet();
+            queuedBytes.addAndGet(-frame.length);
+            lastProgressNanos = System.nanoTime();
+        }
+        return frame;
+    }
+
+    /**
+     * @return true if the caller became the writer and must drain the queue
+     */
+    public boolean tryClaimWriter() {
+        return writerActive.compareAndSet(false, true);
+    }
+
+    /**
+     * Gives up the writer role. Returns true if frames arrived after the drain
+     * and the caller re-claimed the writer role (i.e. it must drain again).
+     */
+    public boolean releaseWriter() {
+        writerActive.set(false);
+        return !frames.isEmpty() && tryClaimWriter();
+    }
+
+    /**
+     * @return true if data has been waiting with no drain progress for too long
+     */
+    public boolean isStalled() {
+        return depth.get() > 0
+                && System.nanoTime() - lastProgressNanos > TimeUnit.MILLISECONDS.toNanos(SLOW_CONSUMER_MILLIS);
+    }
+
+    public boolean isEmpty() {
+        return frames.isEmpty();
+    }
+
+    public int getDepth() {
+        return depth.get();
+    }
+
+    public long getQueuedBytes() {
+        return queuedBytes.get();
+    }
+
+    public int getHighWatermark() {
+        return highWatermark;
+    }
+
+    /**
+     * Drops everything still queued (connection is going away)
+     */
+    public void clear() {
+        while (poll() != null) {
+            // discard
+        }
+    }
+}
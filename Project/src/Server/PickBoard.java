@@ -0,0 +1,192 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: One round's picks, written lock-free by the pickers' own threads (CAS per slot + outstanding counter).
+package Server;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opened by the room at round start with everyone who may pick. A pick is a
+ * single compare-and-set of the picker's slot from PENDING (or EXCUSED, for an
+ * away player who picks anyway) to the choice, so a second pick or a pick
+ * after close() simply loses the CAS. Each first pick by a counted player
+ * decrements {@code outstanding}; exactly one caller sees it reach zero and
+ * that caller alone asks the room to resolve the round. No room-wide scan or
+ * lock is needed per pick.
+ * <p>
+ * Note: Everything but the pick slots and the counter is fixed when opened,
+ * so any thread may read it once the board is published (volatile field).
+ * </p>
+ */
+public class PickBoard {
+    public static final byte PENDING = PlayerTable.NO_CHOICE; // counted, no pick yet
+    public static final byte EXCUSED = -2; // away or left: not counted, may still pick
+    public static final byte CLOSED = -3; // not in this round, or the round has ended
+
+    public enum Result { ACCEPTED, LAST, TAKEN, CLOSED }
+
+    private static final VarHandle PICKS = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private final int round;
+    private final byte[] picks;
+    private final long[] ids; // slot -> id that was eligible at open (0 = not in this round)
+    private final byte[] lastPicks; // cooldown reference (previous round's picks)
+    private final LongIntMap slots; // id -> slot, read-only once opened
+    private final boolean extrasAllowed;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final int eligible; // counted players when opened
+
+    /**
+     * Must be called on the room's mailbox (reads the player table)
+     *
+     * @param round         round number this board belongs to
+     * @param table         room's players; alive members may pick, away ones start EXCUSED
+     * @param extrasAllowed whether lizard/spock may be picked this round
+     */
+    public PickBoard(int round, PlayerTable table, boolean extrasAllowed) {
+        this.round = round;
+        this.extrasAllowed = extrasAllowed;
+        int n = table.capacity();
+        picks = new byte[n];
+        ids = new long[n];
+        lastPicks = new byte[n];
+        java.util.Arrays.fill(picks, CLOSED);
+        slots = new LongIntMap(table.size());
+        int counted = 0;
+        for (int slot = table.nextAlive(0); slot >= 0; slot = table.nextAlive(slot + 1)) {
+            ids[slot] = table.idAt(slot);
+            lastPicks[slot] = table.getLastChoice(slot);
+            slots.put(ids[slot], slot);
+            if (table.isAway(slot)) {
+                picks[slot] = EXCUSED;
+            } else {
+                picks[slot] = PENDING;
+                counted++;
+            }
+        }
+        outstanding.set(counted);
+        eligible = counted;
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public boolean areExtrasAllowed() {
+        return extrasAllowed;
+    }
+
+    /**
+     * @return slot the member picks into, or -1 if it isn't in this round
+     */
+    public int slotOf(long clientId) {
+        return slots.get(clientId, -1);
+    }
+
+    public long idAt(int slot) {
+        return ids[slot];
+    }
+
+    /**
+     * @return slots covered by this board (table capacity when opened)
+     */
+    public int capacity() {
+        return picks.length;
+    }
+
+    public byte lastPickAt(int slot) {
+        return lastPicks[slot];
+    }
+
+    /**
+     * @return players counted when the board opened (not away)
+     */
+    public int getEligible() {
+        return eligible;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * Records a first pick; safe from any thread
+     *
+     * @return LAST if this pick was the final one outstanding (the caller must
+     *         trigger resolution), ACCEPTED for any other first pick, TAKEN if
+     *         the slot already has a pick, CLOSED if the slot isn't open
+     */
+    public Result submit(int slot, byte choice) {
+        while (true) {
+            byte cur = (byte) PICKS.getVolatile(picks, slot);
+            if (cur == CLOSED) {
+                return Result.CLOSED;
+            }
+            if (cur >= 0) {
+                return Result.TAKEN;
+            }
+            if (PICKS.compareAndSet(picks, slot, cur, choice)) {
+                if (cur == EXCUSED) {
+                    return Result.ACCEPTED; // wasn't counted
+                }
+                return outstanding.decrementAndGet() == 0 ? Result.LAST : Result.ACCEPTED;
+            }
+            // lost a race with excuse()/restore()/close(); re-read and decide again
+        }
+    }
+
+    /**
+     * Stops waiting for the slot's pick (went away or left)
+     *
+     * @return true if that left nothing outstanding (the caller must trigger resolution)
+     */
+    public boolean excuse(int slot) {
+        if (PICKS.compareAndSet(picks, slot, PENDING, EXCUSED)) {
+            return outstanding.decrementAndGet() == 0;
+        }
+        return false;
+    }
+
+    /**
+     * Waits for the slot's pick again (came back), unless the round has
+     * already been completed
+     *
+     * @return true if undoing a lost race left nothing outstanding (the caller
+     *         must trigger resolution)
+     */
+    public boolean restore(int slot) {
+        int n;
+        do {
+            n = outstanding.get();
+            if (n == 0) {
+                return false; // resolution already triggered
+            }
+        } while (!outstanding.compareAndSet(n, n + 1)); // count first so nobody else can hit zero meanwhile
+        if (PICKS.compareAndSet(picks, slot, EXCUSED, PENDING)) {
+            return false;
+        }
+        // it picked (uncounted) or closed meanwhile; give the count back
+        return outstanding.decrementAndGet() == 0;
+    }
+
+    /**
+     * Ends the round for pickers; slots without a pick become CLOSED so late
+     * picks lose their CAS
+     */
+    public void close() {
+        for (int slot = 0; slot < picks.length; slot++) {
+            byte cur;
+            do {
+                cur = (byte) PICKS.getVolatile(picks, slot);
+            } while (cur < 0 && cur != CLOSED && !PICKS.compareAndSet(picks, slot, cur, CLOSED));
+        }
+    }
+
+    /**
+     * @return the slot's pick, or a negative value if none
+     */
+    public byte pickAt(int slot) {
+        return (byte) PICKS.getVolatile(picks, slot);
+    }
+}
@@ -0,0 +1,337 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Per-room player state as parallel primitive arrays indexed by slot, flags as long bitsets.
+package Server;
+
+import java.util.Arrays;
+
+/**
+ * Every member of a game room gets a slot; its choice, last choice and points
+ * live in plain arrays at that index and its flags (eliminated, away,
+ * spectator, ready, pending) are one bit per slot. Counting active players is
+ * a popcount and a pick touches two array cells instead of several boxed maps.
+ * <p>
+ * Pending means "no choice recorded" and is kept in step by setChoice(); the
+ * room decides whether that matters (only while choosing).
+ * </p>
+ * <p>
+ * Note: Not thread-safe; only used from its room's mailbox.
+ * </p>
+ */
+public class PlayerTable {
+    public static final byte NO_CHOICE = -1;
+
+    private final LongIntMap slots = new LongIntMap(); // clientId -> slot, unboxed
+    private long[] ids;
+    private byte[] choice;
+    private byte[] lastChoice;
+    private int[] points;
+    private long[] used;
+    private long[] eliminated;
+    private long[] away;
+    private long[] spectator;
+    private long[] ready;
+    private long[] pending;
+    private int size;
+
+    public PlayerTable() {
+        this(64);
+    }
+
+    public PlayerTable(int initialSlots) {
+        allocate(Math.max(64, (initialSlots + 63) & ~63));
+    }
+
+    private void allocate(int capacity) {
+        int words = capacity >>> 6;
+        ids = ids == null ? new long[capacity] : Arrays.copyOf(ids, capacity);
+        points = points == null ? new int[capacity] : Arrays.copyOf(points, capacity);
+        choice = grow(choice, capacity);
+        lastChoice = grow(lastChoice, capacity);
+        used = used == null ? new long[words] : Arrays.copyOf(used, words);
+        eliminated = eliminated == null ? new long[words] : Arrays.copyOf(eliminated, words);
+        away = away == null ? new long[words] : Arrays.copyOf(away, words);
+        spectator = spectator == null ? new long[words] : Arrays.copyOf(spectator, words);
+        ready = ready == null ? new long[words] : Arrays.copyOf(ready, words);
+        pending = pending == null ? new long[words] : Arrays.copyOf(pending, words);
+    }
+
+    private static byte[] grow(byte[] a, int capacity) {
+        int from = a == null ? 0 : a.length;
+        byte[] b = a == null ? new byte[capacity] : Arrays.copyOf(a, capacity);
+        Arrays.fill(b, from, capacity, NO_CHOICE);
+        return b;
+    }
+
+    // ----- Membership -----
+
+    /**
+     * @param clientId
+     * @return the member's slot (existing one if already present)
+     */
+    public int add(long clientId) {
+        int existing = slots.get(clientId, -1);
+        if (existing >= 0) {
+            return existing;
+        }
+        int slot = firstFree();
+        if (slot < 0) {
+            slot = ids.length;
+            allocate(ids.length * 2);
+        }
+        ids[slot] = clientId;
+        points[slot] = 0;
+        choice[slot] = NO_CHOICE;
+        lastChoice[slot] = NO_CHOICE;
+        int w = slot >>> 6;
+        long bit = 1L << slot;
+        used[w] |= bit;
+        pending[w] |= bit;
+        eliminated[w] &= ~bit;
+        away[w] &= ~bit;
+        spectator[w] &= ~bit;
+        ready[w] &= ~bit;
+        slots.put(clientId, slot);
+        size++;
+        return slot;
+    }
+
+    /**
+     * Frees the member's slot for reuse
+     *
+     * @param clientId
+     * @return true if it was a member
+     */
+    public boolean remove(long clientId) {
+        int slot = slots.remove(clientId, -1);
+        if (slot < 0) {
+            return false;
+        }
+        ids[slot] = 0;
+        used[slot >>> 6] &= ~(1L << slot);
+        size--;
+        return true;
+    }
+
+    private int firstFree() {
+        for (int w = 0; w < used.length; w++) {
+            long free = ~used[w];
+            if (free != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(free);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param clientId
+     * @return slot or -1 if not a member
+     */
+    public int slotOf(long clientId) {
+        return slots.get(clientId, -1);
+    }
+
+    public long idAt(int slot) {
+        return ids[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return upper bound (exclusive) for slot indexes
+     */
+    public int capacity() {
+        return ids.length;
+    }
+
+    // ----- Slot iteration (ascending; -1 when done) -----
+
+    /**
+     * @return next occupied slot at or after from
+     */
+    public int nextSlot(int from) {
+        return next(from, false, false);
+    }
+
+    /**
+     * @return next member at or after from that is not eliminated
+     */
+    public int nextAlive(int from) {
+        return next(from, true, false);
+    }
+
+    /**
+     * @return next member at or after from that is neither eliminated nor away
+     */
+    public int nextActive(int from) {
+        return next(from, true, true);
+    }
+
+    private int next(int from, boolean skipEliminated, boolean skipAway) {
+        if (from < 0) {
+            return -1;
+        }
+        int w = from >>> 6;
+        if (w >= used.length) {
+            return -1;
+        }
+        long word = mask(w, skipEliminated, skipAway) & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++w == used.length) {
+                return -1;
+            }
+            word = mask(w, skipEliminated, skipAway);
+        }
+    }
+
+    private long mask(int w, boolean skipEliminated, boolean skipAway) {
+        long m = used[w];
+        if (skipEliminated) {
+            m &= ~eliminated[w];
+        }
+        if (skipAway) {
+            m &= ~away[w];
+        }
+        return m;
+    }
+
+    // ----- Counts -----
+
+    /**
+     * @return members that are not eliminated
+     */
+    public int countAlive() {
+        int n = 0;
+        for (int w = 0; w < used.length; w++) {
+            n += Long.bitCount(used[w] & ~eliminated[w]);
+        }
+        return n;
+    }
+
+    /**
+     * @return members that are neither eliminated nor away
+     */
+    public int countActive() {
+        int n = 0;
+        for (int w = 0; w < used.length; w++) {
+            n += Long.bitCount(used[w] & ~eliminated[w] & ~away[w]);
+        }
+        return n;
+    }
+
+    public int countReady() {
+        return count(ready);
+    }
+
+    public int countSpectators() {
+        return count(spectator);
+    }
+
+    private int count(long[] bits) {
+        int n = 0;
+        for (int w = 0; w < used.length; w++) {
+            n += Long.bitCount(used[w] & bits[w]);
+        }
+        return n;
+    }
+
+    // ----- Per-slot values -----
+
+    public byte getChoice(int slot) {
+        return choice[slot];
+    }
+
+    /**
+     * Records a choice (NO_CHOICE clears it); keeps the pending bit in step
+     */
+    public void setChoice(int slot, byte value) {
+        choice[slot] = value;
+        set(pending, slot, value == NO_CHOICE);
+    }
+
+    public byte getLastChoice(int slot) {
+        return lastChoice[slot];
+    }
+
+    public void setLastChoice(int slot, byte value) {
+        lastChoice[slot] = value;
+    }
+
+    public int getPoints(int slot) {
+        return points[slot];
+    }
+
+    public void addPoints(int slot, int delta) {
+        points[slot] += delta;
+    }
+
+    public boolean isEliminated(int slot) {
+        return get(eliminated, slot);
+    }
+
+    public void setEliminated(int slot, boolean value) {
+        set(eliminated, slot, value);
+    }
+
+    public boolean isAway(int slot) {
+        return get(away, slot);
+    }
+
+    public void setAway(int slot, boolean value) {
+        set(away, slot, value);
+    }
+
+    public boolean isSpectator(int slot) {
+        return get(spectator, slot);
+    }
+
+    public void setSpectator(int slot, boolean value) {
+        set(spectator, slot, value);
+    }
+
+    public boolean isReady(int slot) {
+        return get(ready, slot);
+    }
+
+    public void setReady(int slot, boolean value) {
+        set(ready, slot, value);
+    }
+
+    public boolean isPending(int slot) {
+        return get(pending, slot);
+    }
+
+    // ----- Bulk resets -----
+
+    /**
+     * Clears every member's choice (all become pending)
+     */
+    public void clearChoices() {
+        Arrays.fill(choice, NO_CHOICE);
+        System.arraycopy(used, 0, pending, 0, used.length);
+    }
+
+    public void clearLastChoices() {
+        Arrays.fill(lastChoice, NO_CHOICE);
+    }
+
+    public void clearEliminated() {
+        Arrays.fill(eliminated, 0L);
+    }
+
+    private static boolean get(long[] bits, int slot) {
+        return (bits[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    private static void set(long[] bits, int slot, boolean value) {
+        if (value) {
+            bits[slot >>> 6] |= 1L << slot;
+        } else {
+            bits[slot >>> 6] &= ~(1L << slot);
+        }
+    }
+}
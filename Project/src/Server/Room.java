@@ -3,22 +3,32 @@ package Server;
 import Common.*;
 import Common.TextFX.Color;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import Exceptions.*;
 
 public class Room implements AutoCloseable {
     private final String name;// unique name of the Room
     private volatile boolean isRunning = false;
-    Map<Long, ServerThread> clientsInRoom = new ConcurrentHashMap<>();
+    // Note: replaced whole (copy-on-write) by actions on the mailbox; any thread may read
+    // the current snapshot without copying it
+    private volatile RoomMembers members = RoomMembers.EMPTY;
     public final static String LOBBY = "lobby";
+    // Note: room state is only touched by actions running on this mailbox, one at
+    // a time, instead of callers contending on a lock (see submit())
+    protected final RoomMailbox mailbox;
+    // broadcast traffic, read by the MBean without touching the mailbox
+    private final LongAdder framesSent = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
 
     private void info(String message) {
-        System.out.println(TextFX.colorize(String.format("Room[%s]: %s", name, message), Color.PURPLE));
+        Log.log(Log.Level.INFO, Color.PURPLE, "Room", name, message);
     }
 
     public Room(String name) {
         this.name = name;
+        this.mailbox = new RoomMailbox(name);
         isRunning = true;
         info("Created");
     }
@@ -27,77 +37,206 @@ public class Room implements AutoCloseable {
         return this.name;
     }
 
-    protected synchronized void addClient(ServerThread client) {
-        if (!isRunning) { // block action if Room isn't running
-            return;
+    /**
+     * Queues an action on this room's mailbox. Runs it inline when already on
+     * the mailbox so nested room calls keep their order (like a reentrant lock
+     * would).
+     * 
+     * @param action
+     */
+    protected void submit(Runnable action) {
+        if (mailbox.isCurrent()) {
+            action.run();
+        } else {
+            mailbox.execute(action);
         }
-        if (clientsInRoom.containsKey(client.getClientId())) {
-            info("Attempting to add a client that already exists in the room");
+    }
+
+    /**
+     * Like submit() but the caller waits for the action to finish. Only for
+     * callers outside any room that need the result before moving on (a
+     * connection tearing itself down, server shutdown).
+     * 
+     * @param action
+     */
+    protected void submitAndWait(Runnable action) {
+        if (mailbox.isCurrent()) {
+            action.run();
             return;
         }
-        clientsInRoom.put(client.getClientId(), client);
-        client.setCurrentRoom(this);
-        client.sendResetUserList();
-        syncExistingClients(client);
-        // notify clients of someone joining
-        joinStatusRelay(client, true);
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        mailbox.execute(() -> {
+            try {
+                action.run();
+            } finally {
+                done.complete(null);
+            }
+        });
+        // Note: the action itself may interrupt us (disconnect() interrupts the
+        // connection's reader), so keep waiting and restore the flag afterwards
+        boolean interrupted = false;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            try {
+                done.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            } catch (Exception e) {
+                info("Timed out waiting for room action: " + e);
+                break;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-        onClientAdded(client);
+    /**
+     * @return actions waiting in this room's mailbox
+     */
+    public int getMailboxDepth() {
+        return mailbox.getDepth();
+    }
+
+    protected void addClient(ServerThread client) {
+        submit(() -> {
+            if (!isRunning) { // room closed while the join was queued, fall back to the lobby
+                if (!Room.LOBBY.equalsIgnoreCase(name)) {
+                    handleJoinRoom(client, Room.LOBBY);
+                }
+                return;
+            }
+            if (members.contains(client.getClientId())) {
+                info("Attempting to add a client that already exists in the room");
+                return;
+            }
+            members = members.with(client);
+            // Note: Server.joinRoom() already pointed the client at this room so its
+            // next payloads queue up behind this join
+            // roster to the newcomer, one join delta to everyone else
+            joinStatusRelay(client, true);
 
+            onClientAdded(client);
+        });
     }
 
-    protected synchronized void removeClient(ServerThread client) {
-        if (!isRunning) { // block action if Room isn't running
-            return;
-        }
-        if (!clientsInRoom.containsKey(client.getClientId())) {
-            info("Attempting to remove a client that doesn't exist in the room");
-            return;
-        }
-        ServerThread removedClient = clientsInRoom.get(client.getClientId());
-        if (removedClient != null) {
-            // notify clients of someone joining
+    protected void removeClient(ServerThread client) {
+        final long clientId = client.getClientId(); // read now, the action may run later
+        submit(() -> {
+            if (!isRunning) { // block action if Room isn't running
+                return;
+            }
+            ServerThread removedClient = members.get(clientId);
+            if (removedClient == null) {
+                info("Attempting to remove a client that doesn't exist in the room");
+                return;
+            }
+            // notify clients of someone leaving
             joinStatusRelay(removedClient, false);
-            clientsInRoom.remove(client.getClientId());
+            members = members.without(clientId);
             autoCleanup();
             onClientRemoved(client);
-        }
+        });
     }
 
-    private void syncExistingClients(ServerThread incomingClient) {
-        clientsInRoom.values().forEach(serverThread -> {
-            if (serverThread.getClientId() != incomingClient.getClientId()) {
-                boolean failedToSync = !incomingClient.sendClientInfo(serverThread.getClientId(),
-                        serverThread.getClientName(), RoomAction.JOIN, true);
-                if (failedToSync) {
-                    System.out.println(
-                            String.format("Removing disconnected %s from list", serverThread.getDisplayName()));
-                    disconnect(serverThread);
+    /**
+     * One payload per member about the join/leave instead of an info payload
+     * plus a chat line each. The newcomer gets the whole roster in a single
+     * payload (replacing the reset + one SYNC_CLIENT per existing member).
+     * 
+     * @param client
+     * @param didJoin
+     */
+    private void joinStatusRelay(ServerThread client, boolean didJoin) {
+        // everyone else: member info and the readable notice in the same payload
+        ConnectionPayload delta = ServerThread.clientInfoPayload(client.getClientId(), client.getClientName(),
+                didJoin ? RoomAction.JOIN : RoomAction.LEAVE, false);
+        delta.setMessage(String.format("Room[%s] %s %s the room",
+                getName(), client.getDisplayName(), didJoin ? "joined" : "left"));
+        fanOut(EncodedFrame.of(delta), client.getClientId());
+        // the client itself: the roster on join, its own LEAVE on leave
+        if (members.contains(client.getClientId())) {
+            boolean failedToSend;
+            if (didJoin) {
+                RosterPayload roster = new RosterPayload();
+                roster.setMessage(String.format("Room[%s] You joined the room", getName()));
+                for (ServerThread member : members.array()) {
+                    roster.add(member.getClientId(), member.getClientName());
                 }
+                failedToSend = !client.sendPayload(roster);
+            } else {
+                ConnectionPayload self = ServerThread.clientInfoPayload(client.getClientId(),
+                        client.getClientName(), RoomAction.LEAVE, false);
+                self.setMessage(String.format("Room[%s] You left the room", getName()));
+                failedToSend = !client.sendPayload(self);
             }
-        });
+            if (failedToSend) {
+                info(String.format("Removing disconnected %s from list", client.getDisplayName()));
+                disconnect(client);
+            }
+        }
     }
 
-    private void joinStatusRelay(ServerThread client, boolean didJoin) {
-        clientsInRoom.values().removeIf(serverThread -> {
-            String formattedMessage = String.format("Room[%s] %s %s the room",
-                    getName(),
-                    client.getClientId() == serverThread.getClientId() ? "You"
-                            : client.getDisplayName(),
-                    didJoin ? "joined" : "left");
-            final long senderId = client == null ? Constants.DEFAULT_CLIENT_ID : client.getClientId();
-            // Share info of the client joining or leaving the room
-            boolean failedToSync = !serverThread.sendClientInfo(client.getClientId(),
-                    client.getClientName(), didJoin ? RoomAction.JOIN : RoomAction.LEAVE);
-            // Send the server generated message to the current client
-            boolean failedToSend = !serverThread.sendMessage(senderId, formattedMessage);
-            if (failedToSend || failedToSync) {
-                System.out.println(
-                        String.format("Removing disconnected %s from list", serverThread.getDisplayName()));
+    /**
+     * Serialize-once fan-out: queues the same encoded frame for every member
+     * (except excludeClientId). Members that fail to receive it get removed.
+     * <p>
+     * Note: Per-recipient variants must be sent individually, never by
+     * modifying the frame's payload.
+     * </p>
+     * 
+     * @param frame
+     * @param excludeClientId member to skip or DEFAULT_CLIENT_ID for none
+     */
+    protected void fanOut(EncodedFrame frame, long excludeClientId) {
+        long start = System.nanoTime();
+        FlightEvents.RoomBroadcast event = new FlightEvents.RoomBroadcast();
+        event.begin();
+        int sent = 0;
+        // iterates the snapshot taken here; disconnect() swaps in a new one
+        for (ServerThread serverThread : members.array()) {
+            if (serverThread.getClientId() == excludeClientId) {
+                continue;
+            }
+            if (serverThread.sendFrame(frame)) {
+                countSent(serverThread, frame);
+                sent++;
+            } else {
+                info(String.format("Removing disconnected %s from list", serverThread.getDisplayName()));
                 disconnect(serverThread);
             }
-            return failedToSend;
-        });
+        }
+        Metrics.FAN_OUT.recordSince(start);
+        commitBroadcast(event, frame, sent);
+    }
+
+    /**
+     * Ends and commits a RoomBroadcast flight event begun before a fan-out
+     * 
+     * @param event
+     * @param frame
+     * @param recipients members the frame was queued for
+     */
+    protected void commitBroadcast(FlightEvents.RoomBroadcast event, EncodedFrame frame, int recipients) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.room = name;
+            event.payloadType = frame.getPayload().getPayloadType().name();
+            event.recipients = recipients;
+            event.commit();
+        }
+    }
+
+    /**
+     * Adds a delivered broadcast frame to this room's traffic counters
+     * 
+     * @param recipient
+     * @param frame
+     */
+    protected void countSent(ServerThread recipient, EncodedFrame frame) {
+        framesSent.increment();
+        bytesSent.add(frame.encodedLength(recipient.codec));
     }
 
     // UCID: lm87 | Date: 2025-08-10
@@ -112,12 +251,86 @@ protected void onClientRemoved(ServerThread st) {
 
 // UCID: lm87 | Date: 2025-08-10
 // Brief: Expose read-only snapshots of room clients to subclasses like GameRoom.
+// (views of the current immutable snapshot; nothing is copied)
 protected java.util.Set<Long> getClientIds() {
-    return java.util.Collections.unmodifiableSet(clientsInRoom.keySet());
+    return members.index().keySet();
 }
 
 protected java.util.Map<Long, ServerThread> getClientsSnapshot() {
-    return java.util.Collections.unmodifiableMap(new java.util.LinkedHashMap<>(clientsInRoom));
+    return members.index();
+}
+
+// Brief: Allocation-free member access for hot paths (the array is shared, don't modify it).
+protected ServerThread[] getMembers() {
+    return members.array();
+}
+
+protected ServerThread getMember(long clientId) {
+    return members.get(clientId);
+}
+
+protected boolean hasMember(long clientId) {
+    return members.contains(clientId);
+}
+
+protected int getMemberCount() {
+    return members.size();
+}
+
+// Brief: What the room is doing, for the stats report; GameRoom reports its game phase.
+public String getPhaseName() {
+    return "CHAT";
+}
+
+// Brief: JMX view of this room (see Management); GameRoom returns one with round controls.
+protected RoomMXBean createMBean() {
+    return new RoomView();
+}
+
+protected class RoomView implements RoomMXBean {
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getMemberCount() {
+        return members.size();
+    }
+
+    @Override
+    public String getPhase() {
+        return getPhaseName();
+    }
+
+    @Override
+    public int getMailboxDepth() {
+        return mailbox.getDepth();
+    }
+
+    @Override
+    public long getMessagesSent() {
+        return framesSent.sum();
+    }
+
+    @Override
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    @Override
+    public boolean closeRoom() {
+        if (Room.LOBBY.equalsIgnoreCase(name) || !isRunning) {
+            return false;
+        }
+        info("Close requested over JMX");
+        submit(() -> {
+            if (isRunning) {
+                close();
+            }
+        });
+        return true;
+    }
 }
 
 
@@ -127,9 +340,8 @@ protected java.util.Map<Long, ServerThread> getClientsSnapshot() {
      * Internally calls processCommand and evaluates as necessary.
      * Note: Clients that fail to receive a message get removed from
      * connectedClients.
-     * Adding the synchronized keyword ensures that only one thread can execute
-     * these methods at a time,
-     * preventing concurrent modification issues and ensuring thread safety
+     * Runs on this room's mailbox so only one action touches the room at a
+     * time, preventing concurrent modification issues without a lock
      * 
      * @param message
      * @param sender  ServerThread (client) sending the message or null if it's a
@@ -139,93 +351,89 @@ protected java.util.Map<Long, ServerThread> getClientsSnapshot() {
      // UCID: LM87 | 2025-08-09
 // Summary: Room-scoped relay: send to each client in this room.
 
-    protected synchronized void relay(ServerThread sender, String message) {
-        if (!isRunning) { // block action if Room isn't running
-            return;
-        }
-
-        // Note: any desired changes to the message must be done before this line
-        String senderString = sender == null ? String.format("Room[%s]", getName())
-                : sender.getDisplayName();
-        final long senderId = sender == null ? Constants.DEFAULT_CLIENT_ID : sender.getClientId();
-        // Note: formattedMessage must be final (or effectively final) since outside
-        // scope can't be changed inside a callback function (see removeIf() below)
-        final String formattedMessage = String.format("%s: %s", senderString, message);
-
-        // loop over clients and send out the message; remove client if message failed
-        // to be sent
-        // Note: this uses a lambda expression for each item in the values() collection,
-        // it's one way we can safely remove items during iteration
-        info(String.format("sending message to %s recipients: %s", clientsInRoom.size(), formattedMessage));
-
-        clientsInRoom.values().removeIf(serverThread -> {
-            boolean failedToSend = !serverThread.sendMessage(senderId, formattedMessage);
-            if (failedToSend) {
-                System.out.println(
-                        String.format("Removing disconnected %s from list", serverThread.getDisplayName()));
-                disconnect(serverThread);
+    protected void relay(ServerThread sender, String message) {
+        submit(() -> {
+            if (!isRunning) { // block action if Room isn't running
+                return;
             }
-            return failedToSend;
+
+            // Note: any desired changes to the message must be done before this line
+            String senderString = sender == null ? String.format("Room[%s]", getName())
+                    : sender.getDisplayName();
+            final long senderId = sender == null ? Constants.DEFAULT_CLIENT_ID : sender.getClientId();
+            // Note: formattedMessage must be final (or effectively final) since outside
+            // scope can't be changed inside a callback function (see removeIf() below)
+            final String formattedMessage = String.format("%s: %s", senderString, message);
+
+            // encode once and send the same frame to every client; remove client if
+            // message failed to be sent
+            Log.log(Log.Level.DEBUG, Color.PURPLE, "Room", name, "sending message to %s recipients: %s",
+                    members.size(), formattedMessage);
+
+            fanOut(EncodedFrame.of(ServerThread.messagePayload(senderId, formattedMessage)),
+                    Constants.DEFAULT_CLIENT_ID);
         });
     }
 
+        // Brief: Default no-op hook; GameRoom overrides to resend USER_LIST versions a member missed.
+        protected void handleUserListResync(ServerThread sender, long memberVersion) {
+            // no-op in base (the lobby has no user list state)
+        }
+
         // UCID: lm87 | Date: 2025-08-10
         // Brief: Default no-op hook; GameRoom overrides to implement RPS picking.
-        protected synchronized void handlePick(ServerThread sender, String rawChoice) {
-            // no-op in base
+        protected void handlePick(ServerThread sender, String rawChoice) {
+            submit(() -> {
+                // no-op in base
+            });
         }
 
     /**
      * Takes a ServerThread and removes them from the Server
-     * Adding the synchronized keyword ensures that only one thread can execute
-     * these methods at a time,
-     * preventing concurrent modification issues and ensuring thread safety
+     * Runs on this room's mailbox (see submit())
      * 
      * @param client
      */
-    private synchronized void disconnect(ServerThread client) {
-        if (!isRunning) { // block action if Room isn't running
-            return;
-        }
-        ServerThread disconnectingServerThread = clientsInRoom.remove(client.getClientId());
-        if (disconnectingServerThread != null) {
-
-            clientsInRoom.values().removeIf(serverThread -> {
-                if (serverThread.getClientId() == disconnectingServerThread.getClientId()) {
-                    return true;
-                }
-                boolean failedToSend = !serverThread.sendClientInfo(disconnectingServerThread.getClientId(),
-                        disconnectingServerThread.getClientName(), RoomAction.LEAVE);
-                if (failedToSend) {
-                    System.out.println(
-                            String.format("Removing disconnected %s from list", serverThread.getDisplayName()));
-                    disconnect(serverThread);
-                }
-                return failedToSend;
-            });
-            relay(null, disconnectingServerThread.getDisplayName() + " disconnected");
-            disconnectingServerThread.disconnect();
-        }
-        autoCleanup();
+    private void disconnect(ServerThread client) {
+        // read now, the action may run later (after cleanup() reset the user)
+        final long clientId = client.getClientId();
+        final String clientName = client.getClientName();
+        final String displayName = client.getDisplayName();
+        submit(() -> {
+            if (!isRunning) { // block action if Room isn't running
+                return;
+            }
+            ServerThread disconnectingServerThread = members.get(clientId);
+            if (disconnectingServerThread != null) {
+                members = members.without(clientId);
+
+                fanOut(EncodedFrame.of(ServerThread.clientInfoPayload(clientId, clientName, RoomAction.LEAVE, false)),
+                        clientId);
+                relay(null, displayName + " disconnected");
+                disconnectingServerThread.disconnect();
+            }
+            autoCleanup();
+        });
     }
 
-    protected synchronized void disconnectAll() {
-        info("Disconnect All triggered");
-        if (!isRunning) {
-            return;
-        }
-        clientsInRoom.values().removeIf(client -> {
-            disconnect(client);
-            return true;
+    protected void disconnectAll() {
+        submitAndWait(() -> {
+            info("Disconnect All triggered");
+            if (!isRunning) {
+                return;
+            }
+            for (ServerThread client : members.array()) {
+                disconnect(client);
+            }
+            info("Disconnect All finished");
         });
-        info("Disconnect All finished");
     }
 
     /**
      * Attempts to close the room to free up resources if it's empty
      */
     private void autoCleanup() {
-        if (!Room.LOBBY.equalsIgnoreCase(name) && clientsInRoom.isEmpty()) {
+        if (!Room.LOBBY.equalsIgnoreCase(name) && members.isEmpty()) {
             close();
         }
     }
@@ -233,22 +441,21 @@ protected java.util.Map<Long, ServerThread> getClientsSnapshot() {
     @Override
     public void close() {
         // attempt to gracefully close and migrate clients
-        if (!clientsInRoom.isEmpty()) {
+        if (!members.isEmpty()) {
             relay(null, "Room is shutting down, migrating to lobby");
-            info(String.format("migrating %s clients", clientsInRoom.size()));
-            clientsInRoom.values().removeIf(client -> {
+            info(String.format("migrating %s clients", members.size()));
+            for (ServerThread client : members.array()) {
                 try {
                     Server.INSTANCE.joinRoom(Room.LOBBY, client);
                 } catch (RoomNotFoundException e) {
                     e.printStackTrace();
                     // TODO, fill in, this shouldn't happen though
                 }
-                return true;
-            });
+            }
         }
         Server.INSTANCE.removeRoom(this);
         isRunning = false;
-        clientsInRoom.clear();
+        members = RoomMembers.EMPTY;
         info(String.format("closed"));
     }
 
@@ -273,31 +480,56 @@ protected java.util.Map<Long, ServerThread> getClientsSnapshot() {
         }
     }
 
-    protected synchronized void handleDisconnect(BaseServerThread sender) {
+    protected void handleDisconnect(BaseServerThread sender) {
         handleDisconnect((ServerThread) sender);
     }
 
     /**
-     * Expose access to the disconnect action
+     * Expose access to the disconnect action. Waits for the room to process it
+     * since the connection resets its user (id/name) right after.
      * 
      * @param serverThread
      */
-    protected synchronized void handleDisconnect(ServerThread sender) {
-        disconnect(sender);
+    protected void handleDisconnect(ServerThread sender) {
+        submitAndWait(() -> {
+            disconnect(sender);
+        });
+    }
+
+    /**
+     * Non-blocking handleDisconnect() for the NIO event loop, which must not
+     * wait on a mailbox; then runs on the mailbox once the room is done with
+     * the sender (that's where the connection resets its user)
+     * 
+     * @param sender
+     * @param then
+     */
+    protected void handleDisconnect(ServerThread sender, Runnable then) {
+        submit(() -> {
+            try {
+                disconnect(sender);
+            } finally {
+                then.run();
+            }
+        });
     }
 
-    protected synchronized void handleReverseText(ServerThread sender, String text) {
-        StringBuilder sb = new StringBuilder(text);
-        sb.reverse();
-        String rev = sb.toString();
-        relay(sender, rev);
+    protected void handleReverseText(ServerThread sender, String text) {
+        submit(() -> {
+            StringBuilder sb = new StringBuilder(text);
+            sb.reverse();
+            String rev = sb.toString();
+            relay(sender, rev);
+        });
     }
 
     // UCID: LM87 | 2025-08-09
     // Summary: Prefix with sender name and relay to everyone in this room.
 
-    protected synchronized void handleMessage(ServerThread sender, String text) {
-        relay(sender, text);
+    protected void handleMessage(ServerThread sender, String text) {
+        submit(() -> {
+            relay(sender, text);
+        });
     }
 
 
@@ -0,0 +1,137 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Always-sorted index of joinable rooms with a cached snapshot frame and delta frames.
+package Server;
+
+import Common.PayloadType;
+import Common.RoomsPayload;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the lobby's room list sorted as rooms come and go (skip list keyed by
+ * lower-cased name) so nothing is rebuilt or re-sorted per change. Lobby
+ * members get a snapshot when they arrive and then one small ADDED/REMOVED
+ * delta per change; larger lists are fetched a page at a time.
+ * <p>
+ * Note: The snapshot frame is built at most once per change and shared by
+ * every client that asks for it until the next change.
+ * </p>
+ */
+public class RoomDirectory {
+    public static final int SNAPSHOT_LIMIT = 500; // rooms in the join snapshot, the rest is paged
+    public static final int MAX_PAGE = 200;
+
+    private final ConcurrentSkipListMap<String, String> index = new ConcurrentSkipListMap<>();
+    private final AtomicLong version = new AtomicLong(); // bumped after every change
+    private volatile Snapshot snapshot;
+
+    private static final class Snapshot {
+        final long version;
+        final EncodedFrame frame;
+
+        Snapshot(long version, EncodedFrame frame) {
+            this.version = version;
+            this.frame = frame;
+        }
+    }
+
+    /**
+     * @param name
+     * @return delta for lobby members, or null if it was already listed
+     */
+    public EncodedFrame add(String name) {
+        if (index.putIfAbsent(name.toLowerCase(), name) != null) {
+            return null;
+        }
+        version.incrementAndGet();
+        return delta(RoomsPayload.KIND_ADDED, name);
+    }
+
+    /**
+     * @param name
+     * @return delta for lobby members, or null if it wasn't listed
+     */
+    public EncodedFrame remove(String name) {
+        if (index.remove(name.toLowerCase()) == null) {
+            return null;
+        }
+        version.incrementAndGet();
+        return delta(RoomsPayload.KIND_REMOVED, name);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * @return shared frame with the first SNAPSHOT_LIMIT rooms
+     */
+    public EncodedFrame snapshot() {
+        Snapshot cached = snapshot;
+        long current = version.get();
+        if (cached == null || cached.version != current) {
+            RoomsPayload rp = page(null, 0, SNAPSHOT_LIMIT);
+            rp.setKind(RoomsPayload.KIND_SNAPSHOT);
+            // tagged with the version read before building; a change racing the
+            // build bumps the version so the next caller rebuilds
+            cached = new Snapshot(current, EncodedFrame.of(rp));
+            snapshot = cached;
+        }
+        return cached.frame;
+    }
+
+    /**
+     * Walks the sorted index from the prefix; costs offset + limit steps no
+     * matter how many rooms exist
+     *
+     * @param prefix case-insensitive name prefix (null or empty for all)
+     * @param offset rooms to skip
+     * @param limit  page size (capped at MAX_PAGE, except for the snapshot)
+     * @return PAGE payload; more is set if rooms follow
+     */
+    public RoomsPayload page(String prefix, int offset, int limit) {
+        ConcurrentNavigableMap<String, String> range = index;
+        if (prefix != null && !prefix.isEmpty()) {
+            String from = prefix.toLowerCase();
+            range = index.subMap(from, true, from + Character.MAX_VALUE, false);
+        }
+        List<String> rooms = new ArrayList<>(Math.min(limit, 64));
+        int skipped = 0;
+        boolean more = false;
+        for (Map.Entry<String, String> e : range.entrySet()) {
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            if (rooms.size() == limit) {
+                more = true;
+                break;
+            }
+            rooms.add(e.getValue());
+        }
+        RoomsPayload rp = new RoomsPayload();
+        rp.setPayloadType(PayloadType.ROOMS_SYNC);
+        rp.setKind(RoomsPayload.KIND_PAGE);
+        rp.setPrefix(prefix);
+        rp.setOffset(offset);
+        rp.setLimit(limit);
+        rp.setMore(more);
+        rp.setRooms(rooms);
+        return rp;
+    }
+
+    private static EncodedFrame delta(int kind, String name) {
+        RoomsPayload rp = new RoomsPayload();
+        rp.setPayloadType(PayloadType.ROOMS_SYNC);
+        rp.setKind(kind);
+        List<String> rooms = new ArrayList<>(1);
+        rooms.add(name);
+        rp.setRooms(rooms);
+        return EncodedFrame.of(rp);
+    }
+}
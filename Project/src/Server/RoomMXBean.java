@@ -0,0 +1,43 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: JMX view of one room (Server:type=Room,name="..."); reads are volatile/adder reads, never the mailbox.
+package Server;
+
+/**
+ * Registered by the Server when a room is created and removed when it closes.
+ * Attribute reads only look at fields any thread may read (the membership
+ * snapshot, volatile state, counters), so a stuck room can still be
+ * inspected. Operations are queued on the room's mailbox like any other
+ * action.
+ */
+public interface RoomMXBean {
+    String getName();
+
+    int getMemberCount();
+
+    /**
+     * @return CHAT for plain rooms, the game phase for game rooms
+     */
+    String getPhase();
+
+    /**
+     * @return actions waiting on the room's mailbox (a growing number means the room is stuck or hot)
+     */
+    int getMailboxDepth();
+
+    /**
+     * @return broadcast frames delivered to members
+     */
+    long getMessagesSent();
+
+    /**
+     * @return bytes of those frames
+     */
+    long getBytesSent();
+
+    /**
+     * Moves everyone to the lobby and closes the room (not allowed for the lobby)
+     *
+     * @return false if this is the lobby or the room already closed
+     */
+    boolean closeRoom();
+}
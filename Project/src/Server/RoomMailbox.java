@@ -0,0 +1,127 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Single-consumer mailbox per room, drained by a shared worker pool (actor style).
+package Server;
+
+import Common.Log;
+import Common.TextFX.Color;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Every action on a Room (join, leave, message, pick, timer expiry) is queued
+ * here and run one at a time, so room state needs no lock. At most one worker
+ * drains a given mailbox at a time; different rooms drain in parallel on the
+ * shared pool.
+ * <p>
+ * Note: A drain runs at most BATCH actions before giving its worker back, so a
+ * busy room can't starve the others. Pool size defaults to the number of
+ * cores; override with -Dserver.roomWorkers=N
+ * </p>
+ */
+public class RoomMailbox implements Executor {
+    private static final int BATCH = 64;
+    private static final AtomicInteger workerCount = new AtomicInteger();
+    private static final ExecutorService WORKERS = Executors.newFixedThreadPool(
+            Integer.getInteger("server.roomWorkers", Runtime.getRuntime().availableProcessors()), r -> {
+                Thread t = new Thread(r, "RoomWorker-" + workerCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+    // the mailbox the current worker is draining (lets nested room calls run inline)
+    private static final ThreadLocal<RoomMailbox> CURRENT = new ThreadLocal<>();
+
+    private final String owner;
+    private final ConcurrentLinkedQueue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicInteger depth = new AtomicInteger();
+    // begun when a drain is scheduled, committed when a worker picks it up (only while recording)
+    private FlightEvents.RoomMailboxWait pendingWait;
+
+    /**
+     * @param owner room name (for error output)
+     */
+    public RoomMailbox(String owner) {
+        this.owner = owner;
+    }
+
+    @Override
+    public void execute(Runnable action) {
+        depth.incrementAndGet();
+        queue.add(action);
+        if (scheduled.compareAndSet(false, true)) {
+            schedule();
+        }
+    }
+
+    /**
+     * Hands the drain to a worker; only called by whoever won {@code scheduled}
+     */
+    private void schedule() {
+        FlightEvents.RoomMailboxWait wait = new FlightEvents.RoomMailboxWait();
+        if (wait.isEnabled()) {
+            wait.begin();
+            pendingWait = wait; // published to the worker by WORKERS.execute()
+        }
+        WORKERS.execute(this::drain);
+    }
+
+    private void endWait() {
+        FlightEvents.RoomMailboxWait wait = pendingWait;
+        if (wait != null) {
+            pendingWait = null;
+            wait.end();
+            if (wait.shouldCommit()) {
+                wait.room = owner;
+                wait.queued = depth.get();
+                wait.commit();
+            }
+        }
+    }
+
+    /**
+     * @return true if the calling thread is currently running this mailbox's
+     *         actions
+     */
+    public boolean isCurrent() {
+        return CURRENT.get() == this;
+    }
+
+    /**
+     * @return actions queued but not yet run
+     */
+    public int getDepth() {
+        return depth.get();
+    }
+
+    private void drain() {
+        endWait();
+        CURRENT.set(this);
+        try {
+            for (int i = 0; i < BATCH; i++) {
+                Runnable action = queue.poll();
+                if (action == null) {
+                    break;
+                }
+                depth.decrementAndGet();
+                try {
+                    action.run();
+                } catch (Throwable t) {
+                    // one bad action must not wedge the room
+                    Log.error(Color.RED, "Room", owner, "action failed", t);
+                }
+            }
+        } finally {
+            CURRENT.remove();
+            scheduled.set(false);
+            // re-check: something may have been queued after our last poll
+            if (!queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+                schedule();
+            }
+        }
+    }
+}
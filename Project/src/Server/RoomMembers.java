@@ -0,0 +1,99 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Immutable snapshot of a room's members (join-ordered array + id index), replaced whole on join/leave.
+package Server;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Copy-on-write membership: a join or leave builds a new snapshot and the room
+ * swaps it in, so every broadcast, lookup and count reads the current one
+ * without copying or locking. Joins and leaves are rare next to broadcasts,
+ * so paying the copy there is the cheap side.
+ * <p>
+ * Note: Never modify the array returned by array(); it is shared by every
+ * reader of this snapshot.
+ * </p>
+ */
+public final class RoomMembers {
+    public static final RoomMembers EMPTY = new RoomMembers(new ServerThread[0], Collections.emptyMap());
+
+    private final ServerThread[] members;
+    private final Map<Long, ServerThread> byId;
+
+    private RoomMembers(ServerThread[] members, Map<Long, ServerThread> byId) {
+        this.members = members;
+        this.byId = byId;
+    }
+
+    /**
+     * @return new snapshot with the member appended (this one if already present)
+     */
+    public RoomMembers with(ServerThread member) {
+        if (byId.containsKey(member.getClientId())) {
+            return this;
+        }
+        ServerThread[] next = Arrays.copyOf(members, members.length + 1);
+        next[members.length] = member;
+        Map<Long, ServerThread> index = new HashMap<>(byId);
+        index.put(member.getClientId(), member);
+        return new RoomMembers(next, Collections.unmodifiableMap(index));
+    }
+
+    /**
+     * @return new snapshot without the member (this one if it wasn't present)
+     */
+    public RoomMembers without(long clientId) {
+        ServerThread removed = byId.get(clientId);
+        if (removed == null) {
+            return this;
+        }
+        if (members.length == 1) {
+            return EMPTY;
+        }
+        // Note: match by identity; the member's live id may already be reset (-1) if
+        // it disconnected elsewhere before this leave ran
+        ServerThread[] next = new ServerThread[members.length - 1];
+        int i = 0;
+        for (ServerThread member : members) {
+            if (member != removed) {
+                next[i++] = member;
+            }
+        }
+        Map<Long, ServerThread> index = new HashMap<>(byId);
+        index.remove(clientId);
+        return new RoomMembers(next, Collections.unmodifiableMap(index));
+    }
+
+    /**
+     * @return members in join order (shared, read-only)
+     */
+    public ServerThread[] array() {
+        return members;
+    }
+
+    /**
+     * @return read-only id -> member index
+     */
+    public Map<Long, ServerThread> index() {
+        return byId;
+    }
+
+    public ServerThread get(long clientId) {
+        return byId.get(clientId);
+    }
+
+    public boolean contains(long clientId) {
+        return byId.containsKey(clientId);
+    }
+
+    public int size() {
+        return members.length;
+    }
+
+    public boolean isEmpty() {
+        return members.length == 0;
+    }
+}
@@ -0,0 +1,77 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Case-insensitive room registry built on atomic map operations (no check-then-act).
+package Server;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import Exceptions.DuplicateRoomException;
+
+/**
+ * Rooms keyed by lower-cased name. Every mutation is a single atomic map
+ * operation, so two clients racing to create the same room get exactly one
+ * room and one DuplicateRoomException, and a closing room can never remove a
+ * newer room that reused its name.
+ */
+public class RoomRegistry {
+    private final ConcurrentHashMap<String, Room> rooms = new ConcurrentHashMap<>();
+
+    private static String key(String name) {
+        return name.toLowerCase();
+    }
+
+    /**
+     * Creates and registers a room unless one with that name already exists
+     *
+     * @param name
+     * @param factory builds the room; only called for the winning creator
+     * @return the new room
+     * @throws DuplicateRoomException if the name is taken
+     */
+    public Room create(String name, Function<String, Room> factory) throws DuplicateRoomException {
+        final boolean[] created = { false };
+        Room room = rooms.computeIfAbsent(key(name), k -> {
+            created[0] = true;
+            return factory.apply(name);
+        });
+        if (!created[0]) {
+            throw new DuplicateRoomException(String.format("Room %s already exists", name));
+        }
+        return room;
+    }
+
+    /**
+     * @param name
+     * @return the room or null
+     */
+    public Room get(String name) {
+        return rooms.get(key(name));
+    }
+
+    /**
+     * Removes this exact room instance (a newer room with the same name stays)
+     *
+     * @param room
+     * @return true if it was registered and is now removed
+     */
+    public boolean remove(Room room) {
+        return rooms.remove(key(room.getName()), room);
+    }
+
+    /**
+     * @return live, read-only view of the registered rooms
+     */
+    public Collection<Room> values() {
+        return Collections.unmodifiableCollection(rooms.values());
+    }
+
+    public int size() {
+        return rooms.size();
+    }
+
+    public void clear() {
+        rooms.clear();
+    }
+}
@@ -0,0 +1,132 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Round deadlines sharded across scheduler lanes; resolution runs on a worker pool.
+package Server;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replaces the single static round timer thread every GameRoom used to share.
+ * Each room is pinned to one lane (by name) so its deadlines stay ordered,
+ * while rooms on different lanes never wait behind each other. A lane thread
+ * only notes how late it fired and hands the task to the worker pool, so a
+ * burst of rounds ending together doesn't serialize behind one thread's
+ * socket writes.
+ * <p>
+ * Lanes default to the number of cores; override with -Dserver.roundLanes=N
+ * </p>
+ */
+public class RoundScheduler {
+    public static final RoundScheduler SHARED = new RoundScheduler(
+            Integer.getInteger("server.roundLanes", Runtime.getRuntime().availableProcessors()),
+            Runtime.getRuntime().availableProcessors());
+
+    private final ScheduledThreadPoolExecutor[] lanes;
+    private final ExecutorService workers;
+
+    // timer lateness = actual fire time - scheduled fire time
+    private final LongAdder fired = new LongAdder();
+    private final LongAdder totalLatenessMicros = new LongAdder();
+    private final AtomicLong maxLatenessMicros = new AtomicLong();
+
+    /**
+     * @param laneCount   number of scheduler threads rooms are sharded across
+     * @param workerCount threads that run the expired round work
+     */
+    public RoundScheduler(int laneCount, int workerCount) {
+        lanes = new ScheduledThreadPoolExecutor[Math.max(1, laneCount)];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new ScheduledThreadPoolExecutor(1, daemonThreads("RoundLane-" + i));
+            lanes[i].setRemoveOnCancelPolicy(true); // rounds cut short don't linger in the queue
+        }
+        workers = Executors.newFixedThreadPool(Math.max(1, workerCount), daemonThreads("RoundWorker"));
+    }
+
+    private static java.util.concurrent.ThreadFactory daemonThreads(String prefix) {
+        final AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * @param key stable room key (name)
+     * @return the lane that room should always use
+     */
+    public int laneFor(String key) {
+        return Math.floorMod(key.toLowerCase().hashCode(), lanes.length);
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    /**
+     * Schedules task on the given lane; when it fires, the lane records the
+     * lateness and passes the task to the worker pool
+     *
+     * @param lane  from laneFor()
+     * @param task
+     * @param delay
+     * @param unit
+     * @return future that can cancel the deadline before it fires
+     */
+    public ScheduledFuture<?> schedule(int lane, Runnable task, long delay, TimeUnit unit) {
+        final long target = System.nanoTime() + unit.toNanos(delay);
+        return lanes[lane].schedule(() -> {
+            recordLateness(System.nanoTime() - target);
+            workers.execute(task);
+        }, delay, unit);
+    }
+
+    /**
+     * Same as schedule() but not counted in the round timer lateness/fired
+     * stats; for housekeeping ticks (room broadcast batching) that would
+     * otherwise drown out the round deadlines
+     *
+     * @param lane  from laneFor()
+     * @param task
+     * @param delay
+     * @param unit
+     * @return future that can cancel the task before it fires
+     */
+    public ScheduledFuture<?> scheduleUnmetered(int lane, Runnable task, long delay, TimeUnit unit) {
+        return lanes[lane].schedule(() -> workers.execute(task), delay, unit);
+    }
+
+    private void recordLateness(long nanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+        fired.increment();
+        totalLatenessMicros.add(micros);
+        maxLatenessMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    public long getFiredCount() {
+        return fired.sum();
+    }
+
+    public long getMaxLatenessMicros() {
+        return maxLatenessMicros.get();
+    }
+
+    public long getMeanLatenessMicros() {
+        long n = fired.sum();
+        return n == 0 ? 0 : totalLatenessMicros.sum() / n;
+    }
+
+    /**
+     * @return one-line summary for the server's periodic report
+     */
+    public String describe() {
+        return String.format("Round timers: %s lanes, %s fired, lateness mean %sus max %sus",
+                lanes.length, getFiredCount(), getMeanLatenessMicros(), getMaxLatenessMicros());
+    }
+}
@@ -0,0 +1,313 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Data-defined "who beats whom" graph with bitmask round resolution (RPS, RPSLS, RPS-7/15/101...).
+package Server;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Each choice has a precomputed bitmask of the choices it beats, and a round's
+ * present choices are a bitmask too. A move wins if no present move beats it,
+ * so the winning set is {@code present & ~(union of beats[c] for c in present)}.
+ * Graphs with up to TABLE_MAX_CHOICES choices precompute that answer for every
+ * possible present-set, making it one array lookup; bigger graphs OR together
+ * one mask per present choice. Either way a round costs one pass over the
+ * players to collect present choices and one to mark losers.
+ * <p>
+ * Rule text, one statement per line ({@code #} starts a comment):
+ * </p>
+ * <ul>
+ * <li>{@code name RPSLS}</li>
+ * <li>{@code choices ROCK PAPER SCISSORS LIZARD SPOCK} - declares choices in index order</li>
+ * <li>{@code ROCK beats SCISSORS LIZARD}</li>
+ * <li>{@code cycle A B C D E} - declares choices; each beats the next (n-1)/2 in circular order
+ * (the balanced RPS-n layout)</li>
+ * </ul>
+ * <p>
+ * Note: Immutable once built; safe to share between rooms.
+ * </p>
+ */
+public class RuleSet {
+    public static final int MAX_CHOICES = 127; // choice indexes fit a byte (PlayerTable)
+    public static final int TABLE_MAX_CHOICES = 16; // 2^16 precomputed winner sets
+
+    // Index order matches GameRoom.Choice so its ordinals can be used directly.
+    public static final RuleSet RPSLS = parse(String.join("\n",
+            "name RPSLS",
+            "choices ROCK PAPER SCISSORS LIZARD SPOCK",
+            "ROCK beats SCISSORS LIZARD",
+            "PAPER beats ROCK SPOCK",
+            "SCISSORS beats PAPER LIZARD",
+            "LIZARD beats SPOCK PAPER",
+            "SPOCK beats SCISSORS ROCK"));
+    public static final RuleSet RPS = parse(String.join("\n",
+            "name RPS",
+            "cycle ROCK SCISSORS PAPER"));
+    public static final RuleSet RPS7 = parse(String.join("\n",
+            "name RPS-7",
+            "cycle ROCK FIRE SCISSORS SPONGE PAPER AIR WATER"));
+    public static final RuleSet RPS15 = parse(String.join("\n",
+            "name RPS-15",
+            "cycle ROCK FIRE SCISSORS SNAKE HUMAN TREE WOLF SPONGE PAPER AIR WATER DRAGON DEVIL LIGHTNING GUN"));
+    public static final RuleSet RPS101 = balanced("RPS-101", 101);
+
+    private final String name;
+    private final String[] choices;
+    private final int words; // longs per choice set
+    private final long[][] beats; // choice -> set of choices it beats
+    private final int[] winnerTable; // present-set -> winning set (small graphs only)
+
+    private RuleSet(String name, String[] choices, long[][] beats) {
+        this.name = name;
+        this.choices = choices;
+        this.words = (choices.length + 63) >>> 6;
+        this.beats = beats;
+        this.winnerTable = choices.length <= TABLE_MAX_CHOICES ? buildTable() : null;
+    }
+
+    // Brief: beatenBy[mask] = beatenBy[mask without its lowest choice] | beats[lowest choice]; 2^n steps.
+    private int[] buildTable() {
+        int n = choices.length;
+        int[] beatenBy = new int[1 << n];
+        int[] table = new int[1 << n];
+        for (int mask = 1; mask < table.length; mask++) {
+            int low = Integer.numberOfTrailingZeros(mask);
+            beatenBy[mask] = beatenBy[mask & (mask - 1)] | (int) beats[low][0];
+            table[mask] = mask & ~beatenBy[mask];
+        }
+        return table;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return choices.length;
+    }
+
+    public String choiceName(int choice) {
+        return choices[choice];
+    }
+
+    /**
+     * @param choiceName case-insensitive
+     * @return index or -1
+     */
+    public int indexOf(String choiceName) {
+        for (int i = 0; i < choices.length; i++) {
+            if (choices[i].equalsIgnoreCase(choiceName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean beats(int a, int b) {
+        return contains(beats[a], b);
+    }
+
+    // ----- Choice sets -----
+
+    public long[] newSet() {
+        return new long[words];
+    }
+
+    public static void add(long[] set, int choice) {
+        set[choice >>> 6] |= 1L << choice;
+    }
+
+    public static boolean contains(long[] set, int choice) {
+        return (set[choice >>> 6] & (1L << choice)) != 0;
+    }
+
+    public static int count(long[] set) {
+        int n = 0;
+        for (long w : set) {
+            n += Long.bitCount(w);
+        }
+        return n;
+    }
+
+    /**
+     * Moves that no present move beats (empty when every present move is beaten,
+     * e.g. all three of rock/paper/scissors)
+     *
+     * @param present choices picked this round
+     * @param out     receives the winning set (may be the same array as present)
+     */
+    public void winners(long[] present, long[] out) {
+        if (winnerTable != null) {
+            out[0] = winnerTable[(int) present[0]];
+            return;
+        }
+        long[] beaten = new long[words];
+        for (int w = 0; w < words; w++) {
+            for (long bits = present[w]; bits != 0; bits &= bits - 1) {
+                long[] b = beats[(w << 6) + Long.numberOfTrailingZeros(bits)];
+                for (int i = 0; i < words; i++) {
+                    beaten[i] |= b[i];
+                }
+            }
+        }
+        for (int w = 0; w < words; w++) {
+            out[w] = present[w] & ~beaten[w];
+        }
+    }
+
+    /**
+     * Resolves a whole round: one pass to collect present choices, one lookup
+     * for the winning set and one pass to mark losers
+     *
+     * @param picks choice index per player (negative = no pick, always loses)
+     * @param count players in picks
+     * @param lost  set true for every losing player
+     * @return number of losers
+     */
+    public int resolve(byte[] picks, int count, boolean[] lost) {
+        long[] present = newSet();
+        for (int i = 0; i < count; i++) {
+            if (picks[i] >= 0) {
+                add(present, picks[i]);
+            }
+        }
+        winners(present, present);
+        int winners = 0;
+        for (int i = 0; i < count; i++) {
+            int c = picks[i];
+            // branch-free: a mixed round is a coin flip per player, which mispredicts badly
+            int won = c < 0 ? 0 : (int) (present[c >>> 6] >>> c) & 1;
+            lost[i] = won == 0;
+            winners += won;
+        }
+        return count - winners;
+    }
+
+    // ----- Building -----
+
+    /**
+     * @param text rule statements (see class doc)
+     * @return rule set
+     * @throws IllegalArgumentException on unknown choices, self/mutual wins or bad lines
+     */
+    public static RuleSet parse(String text) {
+        String name = "custom";
+        Map<String, Integer> index = new LinkedHashMap<>();
+        List<int[]> edges = new ArrayList<>(); // {winner, loser}
+        String[] lines = text.split("\\R");
+        for (int ln = 0; ln < lines.length; ln++) {
+            String line = lines[ln];
+            int hash = line.indexOf('#');
+            if (hash >= 0) {
+                line = line.substring(0, hash);
+            }
+            String[] parts = line.trim().split("\\s+");
+            if (parts[0].isEmpty()) {
+                continue;
+            }
+            String head = parts[0].toLowerCase();
+            if (head.equals("name") && parts.length == 2) {
+                name = parts[1];
+            } else if (head.equals("choices") || head.equals("cycle")) {
+                int first = index.size();
+                for (int i = 1; i < parts.length; i++) {
+                    declare(index, parts[i], ln);
+                }
+                if (head.equals("cycle")) {
+                    int n = parts.length - 1;
+                    if (n % 2 == 0) {
+                        throw new IllegalArgumentException("line " + (ln + 1) + ": cycle needs an odd number of choices");
+                    }
+                    for (int i = 0; i < n; i++) {
+                        for (int k = 1; k <= (n - 1) / 2; k++) {
+                            edges.add(new int[] { first + i, first + (i + k) % n });
+                        }
+                    }
+                }
+            } else if (parts.length >= 3 && parts[1].equalsIgnoreCase("beats")) {
+                int winner = lookup(index, parts[0], ln);
+                for (int i = 2; i < parts.length; i++) {
+                    edges.add(new int[] { winner, lookup(index, parts[i], ln) });
+                }
+            } else {
+                throw new IllegalArgumentException("line " + (ln + 1) + ": can't parse '" + lines[ln].trim() + "'");
+            }
+        }
+        return build(name, index.keySet().toArray(new String[0]), edges);
+    }
+
+    /**
+     * @param file rule text file
+     * @return rule set
+     * @throws IOException
+     */
+    public static RuleSet load(Path file) throws IOException {
+        return parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Balanced RPS-n with generated choice names (M1..Mn); each beats the next (n-1)/2
+     *
+     * @param name
+     * @param n    odd number of choices
+     */
+    public static RuleSet balanced(String name, int n) {
+        StringBuilder sb = new StringBuilder("name ").append(name).append("\ncycle");
+        for (int i = 1; i <= n; i++) {
+            sb.append(" M").append(i);
+        }
+        return parse(sb.toString());
+    }
+
+    private static void declare(Map<String, Integer> index, String choice, int ln) {
+        String key = choice.toUpperCase();
+        if (index.containsKey(key)) {
+            throw new IllegalArgumentException("line " + (ln + 1) + ": duplicate choice " + choice);
+        }
+        if (index.size() == MAX_CHOICES) {
+            throw new IllegalArgumentException("line " + (ln + 1) + ": more than " + MAX_CHOICES + " choices");
+        }
+        index.put(key, index.size());
+    }
+
+    private static int lookup(Map<String, Integer> index, String choice, int ln) {
+        Integer i = index.get(choice.toUpperCase());
+        if (i == null) {
+            throw new IllegalArgumentException("line " + (ln + 1) + ": unknown choice " + choice);
+        }
+        return i;
+    }
+
+    private static RuleSet build(String name, String[] choices, List<int[]> edges) {
+        if (choices.length < 2) {
+            throw new IllegalArgumentException(name + ": needs at least 2 choices");
+        }
+        int words = (choices.length + 63) >>> 6;
+        long[][] beats = new long[choices.length][words];
+        for (int[] e : edges) {
+            if (e[0] == e[1]) {
+                throw new IllegalArgumentException(name + ": " + choices[e[0]] + " can't beat itself");
+            }
+            add(beats[e[0]], e[1]);
+        }
+        for (int[] e : edges) {
+            if (contains(beats[e[1]], e[0])) {
+                throw new IllegalArgumentException(name + ": " + choices[e[0]] + " and " + choices[e[1]]
+                        + " both beat each other");
+            }
+        }
+        return new RuleSet(name, choices, beats);
+    }
+
+    @Override
+    public String toString() {
+        return name + Arrays.toString(choices);
+    }
+}
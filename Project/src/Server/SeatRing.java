@@ -0,0 +1,123 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Clockwise seat order for ring battles (A -> B, B -> C, C -> A) as a compact int[] of PlayerTable slots.
+package Server;
+
+import java.util.Arrays;
+
+/**
+ * Seats are PlayerTable slots in clockwise order; seat i attacks seat i+1 and
+ * the last seat attacks the first. A round evaluates every adjacent duel in
+ * one pass against the picks as they stood, then compact() closes the gaps
+ * left by eliminated players in place, so the ring is only reallocated when
+ * a session starts with more seats than it has ever held.
+ * <p>
+ * Note: Not thread-safe; only used from its room's mailbox.
+ * </p>
+ */
+public class SeatRing {
+    private int[] seats = new int[16];
+    private long[] ids = new long[16]; // who sat down in each seat (slots get reused after a leave)
+    private int size;
+
+    /**
+     * Seats every alive member in slot order
+     */
+    public void reset(PlayerTable table) {
+        int alive = table.countAlive();
+        if (seats.length < alive) {
+            seats = new int[Math.max(alive, seats.length * 2)];
+            ids = new long[seats.length];
+        }
+        size = 0;
+        for (int slot = table.nextAlive(0); slot >= 0; slot = table.nextAlive(slot + 1)) {
+            seats[size] = slot;
+            ids[size++] = table.idAt(slot);
+        }
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return slot sitting at seat i (clockwise from the first seat)
+     */
+    public int seat(int i) {
+        return seats[i];
+    }
+
+    /**
+     * Drops seats whose player left or was eliminated, keeping everyone else's order
+     *
+     * @return seats removed
+     */
+    public int compact(PlayerTable table) {
+        int w = 0;
+        for (int r = 0; r < size; r++) {
+            int slot = seats[r];
+            if (table.idAt(slot) == ids[r] && !table.isEliminated(slot)) {
+                seats[w] = slot;
+                ids[w++] = ids[r];
+            }
+        }
+        int removed = size - w;
+        size = w;
+        return removed;
+    }
+
+    /**
+     * Plays every adjacent duel at once. With loseOnAttack a player is out when
+     * the seat they attack beats them; otherwise when the seat attacking them
+     * does. The duel's winner gets a point for each player it knocks out.
+     * Players are only marked eliminated here (seats still hold them until
+     * compact()), so callers can walk the seats to announce who went out.
+     * Expects compact() to have run since the last elimination.
+     *
+     * @param rules        rule graph (choices are PlayerTable choice bytes)
+     * @param table        room's players
+     * @param loseOnAttack LOSE_ON_ATTACK when true, LOSE_ON_DEFEND otherwise
+     * @return number of players eliminated
+     */
+    public int battle(RuleSet rules, PlayerTable table, boolean loseOnAttack) {
+        if (size < 2) {
+            return 0;
+        }
+        int count = 0;
+        int attacker = seats[size - 1]; // the last seat attacks the first
+        byte attackerPick = table.getChoice(attacker);
+        for (int i = 0; i < size; i++) {
+            int defender = seats[i];
+            byte defenderPick = table.getChoice(defender);
+            // ties and wins the rule doesn't count leave both standing
+            int loser = -1;
+            int winner = -1;
+            if (loseOnAttack) {
+                if (rules.beats(defenderPick, attackerPick)) {
+                    loser = attacker;
+                    winner = defender;
+                }
+            } else if (rules.beats(attackerPick, defenderPick)) {
+                loser = defender;
+                winner = attacker;
+            }
+            // everyone attacks and defends once, so a loser can't already be out
+            if (loser >= 0 && !table.isEliminated(loser)) {
+                table.setEliminated(loser, true);
+                table.addPoints(winner, 1);
+                count++;
+            }
+            attacker = defender;
+            attackerPick = defenderPick;
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "SeatRing" + Arrays.toString(Arrays.copyOf(seats, size));
+    }
+}
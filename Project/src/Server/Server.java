@@ -7,7 +7,11 @@ import Exceptions.*;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import Common.TextFX.Color;
 
@@ -16,14 +20,17 @@ public enum Server {
 
     private int port = 3000;
     // connected clients
-    // Use ConcurrentHashMap for thread-safe client management
-    // The key is the unique Room name and the Room is the instance
-    private final ConcurrentHashMap<String, Room> rooms = new ConcurrentHashMap<>();
+    // The key is the unique (case-insensitive) Room name and the Room is the instance
+    private final RoomRegistry rooms = new RoomRegistry();
+    // sorted, joinable rooms (no lobby) for ROOMS_SYNC
+    private final RoomDirectory directory = new RoomDirectory();
     private boolean isRunning = true;
-    private long nextClientId = 0;
+    private final ClientIdAllocator clientIds = new ClientIdAllocator();
+    // connections whose read loop is currently running (threads/virtual engines)
+    private final AtomicInteger activeConnections = new AtomicInteger();
 
     private void info(String message) {
-        System.out.println(TextFX.colorize(String.format("Server: %s", message), Color.YELLOW));
+        Log.log(Log.Level.INFO, Color.YELLOW, "Server", null, message);
     }
 
     private Server() {
@@ -41,19 +48,17 @@ public enum Server {
      // Summary: remove, notify others with LEAVE, close socket
     private void shutdown() {
         try {
-            // chose removeIf over forEach to avoid potential
-            // ConcurrentModificationException
-            // since empty rooms tell the server to remove themselves
-            rooms.values().removeIf(room -> {
+            // iterate a copy since empty rooms tell the server to remove themselves
+            for (Room room : new java.util.ArrayList<>(rooms.values())) {
                 room.disconnectAll();
-                return true;
-            });
+            }
+            rooms.clear();
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
-    private void start(int port) {
+    private void start(int port, ConnectionThreads.Mode mode) {
         this.port = port;
         // server listening
         info("Listening on port " + this.port);
@@ -62,6 +67,9 @@ public enum Server {
         // UCID: LM87 | Date: 2025-08-09
         // Summary: Binds to the provided port and blocks on accept() in a loop to wait for incoming clients.
 
+        ExecutorService connectionThreads = ConnectionThreads.newPerTaskExecutor(mode, "ServerThread");
+        startCapacityReport();
+        startStats();
         try (ServerSocket serverSocket = new ServerSocket(port)) {
             createRoom(Room.LOBBY);// create the first room (lobby)
             while (isRunning) {
@@ -70,17 +78,167 @@ public enum Server {
                 info("Client connected");
                 // wrap socket in a ServerThread, pass a callback to notify the Server when
                 // they're initialized
-                ServerThread serverThread = new ServerThread(incomingClient, this::onServerThreadInitialized);
-                // start the thread (typically an external entity manages the lifecycle and we
-                // don't have the thread start itself)
-                serverThread.start();
+                ServerThread serverThread = new ServerThread(incomingClient, connectionThreads,
+                        this::onServerThreadInitialized);
+                // run the connection loop on its own (platform or virtual) thread; the
+                // executor owns the lifecycle rather than the connection starting itself
+                connectionThreads.execute(() -> {
+                    activeConnections.incrementAndGet();
+                    try {
+                        serverThread.run();
+                    } finally {
+                        activeConnections.decrementAndGet();
+                    }
+                });
                 // Note: We don't yet add the ServerThread reference to our connectedClients map
             }
         } catch (DuplicateRoomException e) {
-            System.err.println(TextFX.colorize("Lobby already exists (this shouldn't happen)", Color.RED));
+            Log.log(Log.Level.ERROR, Color.RED, "Server", null, "Lobby already exists (this shouldn't happen)");
         } catch (IOException e) {
-            System.err.println(TextFX.colorize("Error accepting connection", Color.RED));
-            e.printStackTrace();
+            Log.error(Color.RED, "Server", null, "Error accepting connection", e);
+        } finally {
+            info("Closing server socket");
+            connectionThreads.shutdown();
+        }
+    }
+
+    // UCID: lm87 | Date: 2026-10-17
+    // Brief: Periodically prints how many connections the JVM holds per core and
+    // roughly how many more would fit in the heap at the current cost per connection.
+    private void startCapacityReport() {
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "CapacityReport");
+            t.setDaemon(true);
+            return t;
+        });
+        final Runtime rt = Runtime.getRuntime();
+        final long baselineHeap = rt.totalMemory() - rt.freeMemory();
+        reporter.scheduleAtFixedRate(() -> {
+            int connections = activeConnections.get();
+            if (RoundScheduler.SHARED.getFiredCount() > 0) {
+                info(RoundScheduler.SHARED.describe());
+            }
+            if (connections == 0) {
+                return;
+            }
+            int cores = rt.availableProcessors();
+            long usedHeap = rt.totalMemory() - rt.freeMemory();
+            long perConnection = Math.max(1, (usedHeap - baselineHeap) / connections);
+            long sustainable = (rt.maxMemory() - baselineHeap) / perConnection;
+            info(String.format("Capacity: %s connections on %s cores (%s/core), ~%s KB heap each, est. max %s/core",
+                    connections, cores, connections / cores, perConnection / 1024, sustainable / cores));
+        }, 30, 30, TimeUnit.SECONDS);
+    }
+
+    // UCID: lm87 | Date: 2026-10-17
+    // Brief: Registers the server-level gauges, opens the loopback stats port
+    // (-Dstats.port) and the JMX bean; the gauges walk the rooms only when someone asks.
+    private void startStats() {
+        Metrics.gauge("connections.open", activeConnections::get);
+        Metrics.gauge("clients.connected", () -> {
+            long n = 0;
+            for (Room room : rooms.values()) {
+                n += room.getMemberCount();
+            }
+            return n;
+        });
+        Metrics.gauge("rooms", rooms::size);
+        Metrics.gaugeGroup("rooms.phase", () -> {
+            java.util.Map<String, Long> byPhase = new java.util.TreeMap<>();
+            for (Room room : rooms.values()) {
+                byPhase.merge(room.getPhaseName(), 1L, Long::sum);
+            }
+            return byPhase;
+        });
+        Metrics.gauge("outbound.depth.total", () -> {
+            long n = 0;
+            for (Room room : rooms.values()) {
+                for (ServerThread member : room.getMembers()) {
+                    n += member.getOutboundDepth();
+                }
+            }
+            return n;
+        });
+        Metrics.gauge("outbound.depth.max", () -> {
+            long max = 0;
+            for (Room room : rooms.values()) {
+                for (ServerThread member : room.getMembers()) {
+                    max = Math.max(max, member.getOutboundDepth());
+                }
+            }
+            return max;
+        });
+        Metrics.gauge("log.dropped", Log::getDropped);
+        StatsEndpoint.startFromProperties();
+        Management.registerServer(new ServerView());
+    }
+
+    // Brief: JMX view of the server (see ServerMXBean); reads the registry and counters only.
+    private class ServerView implements ServerMXBean {
+        @Override
+        public int getRoomCount() {
+            return rooms.size();
+        }
+
+        @Override
+        public long getConnectedClients() {
+            long n = 0;
+            for (Room room : rooms.values()) {
+                n += room.getMemberCount();
+            }
+            return n;
+        }
+
+        @Override
+        public int getActiveConnections() {
+            return activeConnections.get();
+        }
+
+        @Override
+        public String[] getRoomNames() {
+            java.util.List<String> names = new java.util.ArrayList<>();
+            for (Room room : rooms.values()) {
+                names.add(room.getName());
+            }
+            return names.toArray(new String[0]);
+        }
+
+        @Override
+        public String getMetricsReport() {
+            return Metrics.render();
+        }
+
+        @Override
+        public String getLogLevel() {
+            return Log.getLevel().name();
+        }
+
+        @Override
+        public void setLogLevel(String level) {
+            Log.setLevel(Log.Level.valueOf(level.trim().toUpperCase()));
+        }
+
+        @Override
+        public boolean closeRoom(String name) {
+            Room room = rooms.get(name);
+            return room != null && room.createMBean().closeRoom();
+        }
+    }
+
+    // UCID: lm87 | Date: 2026-10-17
+    // Brief: Same as start() but connections are served by a few selector event loops
+    // instead of one thread each. Rooms still only see ServerThread handles.
+    private void startNio(int port, int loops) {
+        this.port = port;
+        startCapacityReport();
+        startStats();
+        try {
+            createRoom(Room.LOBBY);
+            new NioServer(port, loops, this::onServerThreadInitialized, activeConnections).run();
+        } catch (DuplicateRoomException e) {
+            Log.log(Log.Level.ERROR, Color.RED, "Server", null, "Lobby already exists (this shouldn't happen)");
+        } catch (IOException e) {
+            Log.error(Color.RED, "Server", null, "Error accepting connection", e);
         } finally {
             info("Closing server socket");
         }
@@ -94,14 +252,12 @@ public enum Server {
      */
     private void onServerThreadInitialized(ServerThread serverThread) {
         // Generate Server controlled clientId
-        nextClientId = Math.max(++nextClientId, 1);
-        serverThread.setClientId(nextClientId);
+        serverThread.setClientId(clientIds.next());
         serverThread.sendClientId();// syncs the data to the Client
         // add initialized client to the lobby
         info(String.format("*%s initialized*", serverThread.getDisplayName()));
         try {
-            joinRoom(Room.LOBBY, serverThread);
-            sendRoomsListTo(serverThread);
+            joinRoom(Room.LOBBY, serverThread); // also sends the rooms snapshot
             info(String.format("*%s added to Lobby*", serverThread.getDisplayName()));
         } catch (RoomNotFoundException e) {
             info(String.format("*Error adding %s to Lobby*", serverThread.getDisplayName()));
@@ -120,14 +276,12 @@ public enum Server {
      // UCID: LM87 | 2025-08-09
 // Summary: Adds a new Room to the rooms map.
     protected void createRoom(String name) throws DuplicateRoomException {
-        final String nameCheck = name.toLowerCase();
-        if (rooms.containsKey(nameCheck)) {
-            throw new DuplicateRoomException(String.format("Room %s already exists", name));
-        }
         // after: lobby stays Room; everything else becomes GameRoom
-        Room room = Room.LOBBY.equalsIgnoreCase(name) ? new Room(name) : new GameRoom(name);
-        rooms.put(nameCheck, room);
-        broadcastRoomsListToLobby();
+        Room room = rooms.create(name, n -> Room.LOBBY.equalsIgnoreCase(n) ? new Room(n) : new GameRoom(n));
+        Management.register(room);
+        if (!Room.LOBBY.equalsIgnoreCase(name)) {
+            publishToLobby(directory.add(name));
+        }
         info(String.format("Created new Room %s", name));
     }
 
@@ -144,55 +298,57 @@ public enum Server {
 // UCID: LM87 | Date: 2025-08-09
 // Summary: Room maintains clients and relays messages to all members.
     protected void joinRoom(String name, ServerThread client) throws RoomNotFoundException {
-        final String nameCheck = name.toLowerCase();
-        if (!rooms.containsKey(nameCheck)) {
+        Room next = rooms.get(name);
+        if (next == null) {
             throw new RoomNotFoundException(String.format("Room %s wasn't found", name));
         }
         Room currentRoom = client.getCurrentRoom();
+        // point the client at the new room first so anything it sends next is
+        // queued behind the join in that room's mailbox
+        client.setCurrentRoom(next);
         if (currentRoom != null) {
             info("Removing client from previous Room " + currentRoom.getName());
             currentRoom.removeClient(client);
         }
-        Room next = rooms.get(nameCheck);
         next.addClient(client);
+        if (Room.LOBBY.equalsIgnoreCase(next.getName())) {
+            // queued behind the join so no delta can slip between snapshot and membership
+            next.submit(() -> sendRoomsListTo(client));
+        }
     }
 
 
     // UCID: LM87 | 2025-08-09
 // Summary: Deletes a room from the rooms map.
     protected void removeRoom(Room room) {
-        rooms.remove(room.getName().toLowerCase());
-        broadcastRoomsListToLobby();
+        if (!rooms.remove(room)) {
+            return; // already gone (or the name now belongs to a newer room)
+        }
+        Management.unregister(room);
+        publishToLobby(directory.remove(room.getName()));
         info(String.format("Removed room %s", room.getName()));
     }
 
         // UCID: lm87 | 2025-08-11
-    // Brief: Build current room list (excluding Lobby) and send to a specific client.
+    // Brief: Send the cached room list snapshot (excluding Lobby) to a specific client.
     protected void sendRoomsListTo(ServerThread st) {
-        Common.RoomsPayload rp = new Common.RoomsPayload();
-        rp.setPayloadType(Common.PayloadType.ROOMS_SYNC);
-        java.util.List<String> list = new java.util.ArrayList<>();
-        rooms.forEach((name, r) -> { if (!Room.LOBBY.equalsIgnoreCase(name)) list.add(r.getName()); });
-        java.util.Collections.sort(list, String.CASE_INSENSITIVE_ORDER);
-        rp.setRooms(list);
-        st.send(rp);
+        st.sendFrame(directory.snapshot());
+    }
+
+    // UCID: lm87 | Date: 2026-10-17
+    // Brief: Answers a client's page/prefix request from the sorted directory.
+    protected void sendRoomsPage(ServerThread st, String prefix, int offset, int limit) {
+        int size = Math.max(1, Math.min(limit <= 0 ? RoomDirectory.MAX_PAGE : limit, RoomDirectory.MAX_PAGE));
+        st.send(directory.page(prefix, Math.max(0, offset), size));
     }
 
         // UCID: lm87 | 2025-08-11
-    // Brief: Broadcast current room list to everyone in the Lobby.
-    protected void broadcastRoomsListToLobby() {
-        Room lobby = rooms.get(Room.LOBBY.toLowerCase());
-        if (lobby == null) return;
-        Common.RoomsPayload rp = new Common.RoomsPayload();
-        rp.setPayloadType(Common.PayloadType.ROOMS_SYNC);
-        java.util.List<String> list = new java.util.ArrayList<>();
-        rooms.forEach((name, r) -> { if (!Room.LOBBY.equalsIgnoreCase(name)) list.add(r.getName()); });
-        java.util.Collections.sort(list, String.CASE_INSENSITIVE_ORDER);
-        rp.setRooms(list);
-        // send to everyone in Lobby
-        for (ServerThread st : lobby.getClientsSnapshot().values()) {
-            st.send(rp);
-        }
+    // Brief: Tell everyone in the Lobby that a room was added/removed (one shared delta frame,
+    // queued on the lobby's mailbox so it's ordered with lobby joins).
+    private void publishToLobby(EncodedFrame delta) {
+        Room lobby = rooms.get(Room.LOBBY);
+        if (lobby == null || delta == null) return;
+        lobby.submit(() -> lobby.fanOut(delta, Constants.DEFAULT_CLIENT_ID));
     }
 
     /**
@@ -201,15 +357,14 @@ public enum Server {
      * Note: Not a common use-case; just updated for example sake.
      * </p>
      * Relays the message from the sender to all rooms
-     * Adding the synchronized keyword ensures that only one thread can execute
-     * these methods at a time,
-     * preventing concurrent modification issues and ensuring thread safety
+     * Not synchronized: each Room guards its own relay, and holding a monitor
+     * across socket writes would pin virtual threads
      * 
      * @param message
      * @param sender  ServerThread (client) sending the message or null if it's a
      *                server-generated message
      */
-    private synchronized void relayToAllRooms(ServerThread sender, String message) {
+    private void relayToAllRooms(ServerThread sender, String message) {
         // Note: any desired changes to the message must be done before this line
         String senderString = sender == null ? "Server" : sender.getDisplayName();
         // Note: formattedMessage must be final (or effectively final) since outside
@@ -232,10 +387,15 @@ public enum Server {
      * @param sender
      * @param message
      */
-    public synchronized void broadcastMessageToAllRooms(ServerThread sender, String message) {
+    public void broadcastMessageToAllRooms(ServerThread sender, String message) {
         relayToAllRooms(sender, message);
     }
 
+    /**
+     * Usage: Server [port] [threads|virtual|nio] [eventLoops]
+     * 
+     * @param args
+     */
     public static void main(String[] args) {
         System.out.println("Server Starting");
         Server server = Server.INSTANCE;
@@ -246,7 +406,20 @@ public enum Server {
             // can ignore, will either be index out of bounds or type mismatch
             // will default to the defined value prior to the try/catch
         }
-        server.start(port);
+        String engine = args.length > 1 ? args[1] : "threads";
+        if ("nio".equalsIgnoreCase(engine)) {
+            int loops = Runtime.getRuntime().availableProcessors();
+            try {
+                loops = Integer.parseInt(args[2]);
+            } catch (Exception e) {
+                // default to one loop per core
+            }
+            server.startNio(port, loops);
+        } else if ("virtual".equalsIgnoreCase(engine)) {
+            server.start(port, ConnectionThreads.Mode.VIRTUAL);
+        } else {
+            server.start(port, ConnectionThreads.Mode.PLATFORM);
+        }
         System.out.println("Server Stopped");
     }
 
@@ -0,0 +1,208 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Hot-path benchmarks for rooms (relay fan-out, picks, round resolution, join churn) over socket-free members.
+package Server;
+
+import Common.BinaryPayloadCodec;
+import Common.Log;
+import Demo.Bench;
+
+import java.io.DataOutputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+
+/**
+ * Lives in the Server package (like a JMH benchmark would) so it can drive the
+ * protected room entry points directly. Members are StubMember connections:
+ * real ServerThreads whose frames are encoded, queued and "written" to a null
+ * stream on the calling thread, so the numbers are the server's own logic and
+ * encoding cost without any socket or network in them. Rooms still run their
+ * actions on the room workers; each batch ends with a mailbox barrier so
+ * queued work is counted.
+ * Usage: ServerBenchmarks [filter regex] (see Demo.Bench for settings)
+ * <p>
+ * Note: Logging is turned down to WARN unless -Dlog.level is given, so the
+ * per-join INFO lines don't end up in the numbers.
+ * </p>
+ */
+public class ServerBenchmarks {
+    private static final int[] ROOM_SIZES = { 10, 100, 1000 };
+    private static long nextId = 1;
+
+    /**
+     * A connected-looking member without a socket; frames go to a null stream
+     */
+    static final class StubMember extends ServerThread {
+        private final String name;
+
+        StubMember(String name) {
+            super(new Socket(), Runnable::run, st -> {
+            });
+            this.name = name;
+            setClientId(nextId++);
+            codec = BinaryPayloadCodec.INSTANCE;
+            out = new DataOutputStream(OutputStream.nullOutputStream());
+            isRunning = true;
+        }
+
+        @Override
+        public String getClientName() {
+            return name;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return name + "#" + getClientId();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("log.level") == null) {
+            Log.setLevel(Log.Level.WARN);
+        }
+        Bench bench = new Bench(args);
+        run(bench);
+        bench.summary();
+    }
+
+    public static void run(Bench bench) throws Exception {
+        for (int size : ROOM_SIZES) {
+            relay(bench, size);
+        }
+        for (int size : ROOM_SIZES) {
+            handlePick(bench, size);
+        }
+        for (int size : ROOM_SIZES) {
+            roundEnd(bench, size);
+        }
+        joinChurn(bench, 100);
+    }
+
+    private static StubMember[] fill(Room room, int size) {
+        StubMember[] members = new StubMember[size];
+        for (int i = 0; i < size; i++) {
+            members[i] = new StubMember("p" + i);
+            members[i].setCurrentRoom(room);
+            room.addClient(members[i]);
+        }
+        barrier(room);
+        return members;
+    }
+
+    private static void barrier(Room room) {
+        room.submitAndWait(() -> {
+        });
+    }
+
+    // Room.relay(): one chat line fanned out to every member (ns/op = per relayed line)
+    private static void relay(Bench bench, int size) throws Exception {
+        if (!bench.selected("room.relay", "members=" + size)) {
+            return;
+        }
+        Room room = new Room("bench-relay-" + size);
+        fill(room, size);
+        bench.run("room.relay", "members=" + size, () -> {
+            for (int i = 0; i < 20; i++) {
+                room.relay(null, "benchmark line");
+            }
+            barrier(room);
+            return 20;
+        });
+        room.disconnectAll();
+    }
+
+    private static GameRoom startSession(String name, int size, StubMember[][] out) {
+        GameRoom room = new GameRoom(name);
+        StubMember[] members = fill(room, size);
+        for (StubMember member : members) {
+            room.onReadyToggle(member.getClientId(), true);
+        }
+        room.onSessionStart();
+        barrier(room);
+        out[0] = members;
+        return room;
+    }
+
+    // GameRoom.handlePick(): everyone picks rock, the last pick resolves a stalemate and opens the
+    // next round (ns/op = per pick, including its announcement and 1/size of a resolution)
+    private static void handlePick(Bench bench, int size) throws Exception {
+        if (!bench.selected("gameroom.handlePick", "players=" + size)) {
+            return;
+        }
+        StubMember[][] holder = new StubMember[1][];
+        GameRoom room = startSession("bench-pick-" + size, size, holder);
+        StubMember[] members = holder[0];
+        bench.run("gameroom.handlePick", "players=" + size, () -> {
+            for (StubMember member : members) {
+                room.handlePick(member, "r");
+            }
+            barrier(room);
+            return members.length;
+        });
+        room.disconnectAll();
+    }
+
+    // GameRoom.onRoundEnd(): half rock, half scissors; times the last pick through resolution
+    // (scissors eliminated, next round opened). Setup (new session, other picks) isn't timed.
+    private static void roundEnd(Bench bench, int size) throws Exception {
+        if (!bench.selected("gameroom.onRoundEnd", "players=" + size)) {
+            return;
+        }
+        StubMember[][] holder = new StubMember[1][];
+        GameRoom room = startSession("bench-round-" + size, size, holder);
+        StubMember[] members = holder[0];
+        bench.runTimed("gameroom.onRoundEnd", "players=" + size, () -> {
+            room.cancelRoundTimer();
+            room.onSessionEnd();
+            room.onSessionStart();
+            barrier(room); // picks go straight to the board, so it must be open first
+            for (int i = 0; i < members.length - 1; i++) {
+                room.handlePick(members[i], i % 2 == 0 ? "r" : "s");
+            }
+            barrier(room);
+            long start = System.nanoTime();
+            room.handlePick(members[members.length - 1], "s");
+            barrier(room);
+            return System.nanoTime() - start;
+        });
+        room.disconnectAll();
+    }
+
+    // Server.joinRoom(): members hop lobby -> game room -> lobby (ns/op = per join, leave included)
+    private static void joinChurn(Bench bench, int size) throws Exception {
+        if (!bench.selected("server.joinRoom", "members=" + size)) {
+            return;
+        }
+        Server server = Server.INSTANCE;
+        try {
+            server.createRoom(Room.LOBBY);
+        } catch (Exceptions.DuplicateRoomException e) {
+            // already there
+        }
+        String arena = "bench-churn";
+        server.createRoom(arena);
+        StubMember anchor = new StubMember("anchor"); // keeps the game room from closing when the rest leave
+        server.joinRoom(arena, anchor);
+        Room game = anchor.getCurrentRoom();
+        StubMember[] members = new StubMember[size];
+        for (int i = 0; i < size; i++) {
+            members[i] = new StubMember("c" + i);
+            server.joinRoom(Room.LOBBY, members[i]);
+        }
+        Room lobby = members[0].getCurrentRoom();
+        barrier(lobby);
+        bench.run("server.joinRoom", "members=" + size, () -> {
+            for (StubMember member : members) {
+                server.joinRoom(arena, member);
+            }
+            barrier(lobby);
+            barrier(game);
+            for (StubMember member : members) {
+                server.joinRoom(Room.LOBBY, member);
+            }
+            barrier(game);
+            barrier(lobby);
+            return 2L * members.length;
+        });
+        game.disconnectAll();
+    }
+}
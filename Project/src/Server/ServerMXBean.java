@@ -0,0 +1,38 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: JMX view of the server (Server:type=Server): totals, room list and the metrics report.
+package Server;
+
+public interface ServerMXBean {
+    int getRoomCount();
+
+    /**
+     * @return clients currently in some room
+     */
+    long getConnectedClients();
+
+    /**
+     * @return open connections in any engine (threads, virtual or NIO), named or not
+     */
+    int getActiveConnections();
+
+    String[] getRoomNames();
+
+    /**
+     * @return the same text the stats endpoint serves
+     */
+    String getMetricsReport();
+
+    String getLogLevel();
+
+    /**
+     * @param level TRACE, DEBUG, INFO, WARN, ERROR or OFF
+     */
+    void setLogLevel(String level);
+
+    /**
+     * Closes the named room (see RoomMXBean.closeRoom())
+     *
+     * @return false if there is no such room or it's the lobby
+     */
+    boolean closeRoom(String name);
+}
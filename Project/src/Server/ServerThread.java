@@ -3,6 +3,7 @@ package Server;
 import Common.*;
 import java.net.Socket;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import Common.TextFX.Color;
 
@@ -19,23 +20,34 @@ public class ServerThread extends BaseServerThread {
      * @param message
      */
     protected void info(String message) {
-        System.out.println(TextFX.colorize(String.format("Thread[%s]: %s", this.getClientId(), message), Color.CYAN));
+        if (Log.isEnabled(Log.Level.INFO)) {
+            Log.log(Log.Level.INFO, Color.CYAN, "Thread", getClientId(), message);
+        }
+    }
+
+    @Override
+    protected void debug(String format, Object arg) {
+        if (Log.isEnabled(Log.Level.DEBUG)) {
+            Log.log(Log.Level.DEBUG, Color.CYAN, "Thread", getClientId(), format, arg);
+        }
     }
 
     /**
      * Wraps the Socket connection and takes a Server reference and a callback
      * 
      * @param myClient
-     * @param server
+     * @param writerThreads            runs the outbound writer for this client
+     *                                 (null if a subclass writes on its own thread)
      * @param onInitializationComplete method to inform listener that this object is
      *                                 ready
      */
-    protected ServerThread(Socket myClient, Consumer<ServerThread> onInitializationComplete) {
+    protected ServerThread(Socket myClient, Executor writerThreads, Consumer<ServerThread> onInitializationComplete) {
         Objects.requireNonNull(myClient, "Client socket cannot be null");
         Objects.requireNonNull(onInitializationComplete, "callback cannot be null");
         info("ServerThread created");
         // get communication channels to single client
         this.client = myClient;
+        this.writerThreads = writerThreads;
         // this.clientId = this.threadId(); // An id associated with the thread
         // instance, used as a temporary identifier
         this.onInitializationComplete = onInitializationComplete;
@@ -77,6 +89,22 @@ public class ServerThread extends BaseServerThread {
      * @return true for successful send
      */
     protected boolean sendClientInfo(long clientId, String clientName, RoomAction action, boolean isSync) {
+        return sendToClient(clientInfoPayload(clientId, clientName, action, isSync));
+    }
+
+    /**
+     * Builds the Client Info payload; shared by sendClientInfo() and room
+     * broadcasts that send the same info to every member
+     * 
+     * @param clientId   use -1 for reset/clear
+     * @param clientName
+     * @param action     RoomAction of Join or Leave
+     * @param isSync     True is used to not show output on the client side (silent
+     *                   sync)
+     * @return payload
+     */
+    protected static ConnectionPayload clientInfoPayload(long clientId, String clientName, RoomAction action,
+            boolean isSync) {
         ConnectionPayload payload = new ConnectionPayload();
         switch (action) {
             case JOIN:
@@ -93,7 +121,7 @@ public class ServerThread extends BaseServerThread {
         }
         payload.setClientId(clientId);
         payload.setClientName(clientName);
-        return sendToClient(payload);
+        return payload;
     }
 
     /**
@@ -108,6 +136,7 @@ public class ServerThread extends BaseServerThread {
         payload.setClientId(getClientId());
         payload.setClientName(getClientName());// Can be used as a Server-side override of username (i.e., profanity
                                                // filter)
+        payload.setCodecs(PayloadCodecs.nameOf(codec)); // tells the client which codec we answer in
         return sendToClient(payload);
     }
 
@@ -119,11 +148,22 @@ public class ServerThread extends BaseServerThread {
      * @return true for successful send
      */
     protected boolean sendMessage(long clientId, String message) {
+        return sendToClient(messagePayload(clientId, message));
+    }
+
+    /**
+     * Builds a MESSAGE payload (see sendMessage())
+     * 
+     * @param clientId who it's from
+     * @param message
+     * @return payload
+     */
+    protected static Payload messagePayload(long clientId, String message) {
         Payload payload = new Payload();
         payload.setPayloadType(PayloadType.MESSAGE);
         payload.setMessage(message);
         payload.setClientId(clientId);
-        return sendToClient(payload);
+        return payload;
     }
 
         // UCID: lm87 | Date: 2025-08-10
@@ -133,6 +173,12 @@ public class ServerThread extends BaseServerThread {
         return sendToClient(payload);
     }
 
+    // UCID: lm87 | Date: 2026-10-17
+    // Brief: Broadcast path; the frame is encoded once and shared by all recipients.
+    public boolean sendFrame(EncodedFrame frame) {
+        return sendToClient(frame);
+    }
+
         // UCID: lm87 | Date: 2025-08-10
     // Brief: Overload to send a plain server message without specifying a sender id.
     public boolean sendMessage(String message) {
@@ -143,12 +189,18 @@ public class ServerThread extends BaseServerThread {
         // UCID: lm87 | Date: 2025-08-10
     // Brief: Sync a full scoreboard to this client using PointsPayload (Milestone 2).
     public boolean sendPoints(java.util.Map<Long, Integer> pointsByClientId, String reason) {
+        return sendToClient(pointsPayload(getClientId(), pointsByClientId, reason));
+    }
+
+    // Brief: Builds the scoreboard payload; broadcasts pass DEFAULT_CLIENT_ID so one frame fits everyone.
+    protected static PointsPayload pointsPayload(long clientId, java.util.Map<Long, Integer> pointsByClientId,
+            String reason) {
         Common.PointsPayload pp = new Common.PointsPayload();
         pp.setPayloadType(Common.PayloadType.POINTS_SYNC);
-        pp.setClientId(getClientId());  // not required for all uses, but fine to include
+        pp.setClientId(clientId);  // not required for all uses, but fine to include
         pp.setMessage(reason);
         pp.setPointsByClientId(pointsByClientId);
-        return sendToClient(pp);
+        return pp;
     }
 
     // End Send*() Methods
@@ -157,7 +209,10 @@ public class ServerThread extends BaseServerThread {
 
         switch (incoming.getPayloadType()) {
             case CLIENT_CONNECT:
-                setClientName(((ConnectionPayload) incoming).getClientName().trim());
+                ConnectionPayload connect = (ConnectionPayload) incoming;
+                // switch before setClientName() since that triggers sendClientId()
+                codec = PayloadCodecs.forName(PayloadCodecs.choose(connect.getCodecs()));
+                setClientName(connect.getClientName().trim());
 
                 break;
             case DISCONNECT:
@@ -182,19 +237,34 @@ public class ServerThread extends BaseServerThread {
                 // UCID: lm87 | Date: 2025-08-10
     // Brief: Route PICK to the room so GameRoom can record the choice.
                 case PICK:
-                System.out.println("Thread[" + getId() + "] PICK <- " + getClientName()
-                + " choice=" + incoming.getMessage());
+                if (Log.isEnabled(Log.Level.DEBUG)) {
+                    Log.log(Log.Level.DEBUG, Color.CYAN, "Thread", getClientId(), "PICK <- %s choice=%s",
+                            getClientName(), incoming.getMessage());
+                }
                 currentRoom.handlePick(this, incoming.getMessage()); // "r","p","s"
                 break;
 
                 case START:
                 if (currentRoom instanceof GameRoom) {
-                    System.out.println("Thread[" + getId() + "]: START requested by " + getClientName());
+                    info("START requested by " + getClientName());
                     ((GameRoom) currentRoom).onSessionStart();  // make this method public if needed
                 } else {
                     sendMessage("This command only works in a GameRoom.");
                 }
                 break;
+                case ROOMS_SYNC: {
+                // page / prefix search of the room directory
+                RoomsPayload req = (RoomsPayload) incoming;
+                Server.INSTANCE.sendRoomsPage(this, req.getPrefix(), req.getOffset(), req.getLimit());
+                break;
+                }
+                case USER_LIST:
+                // client detected a version gap and wants to catch up
+                currentRoom.handleUserListResync(this, ((UserListPayload) incoming).getVersion());
+                break;
+                case HEARTBEAT:
+                // handled in onFrame(); nothing to route
+                break;
                 case GAME_SETTING: {
                     // forward to the current room if it’s a GameRoom
                     Room room = getCurrentRoom(); // or however you retrieve it
@@ -207,7 +277,8 @@ public class ServerThread extends BaseServerThread {
                 }
 
             default:
-                System.out.println(TextFX.colorize("Unknown payload type received", Color.RED));
+                Log.log(Log.Level.WARN, Color.RED, "Thread", getClientId(), "Unknown payload type received: %s",
+                        incoming.getPayloadType());
                 break;
         }
     }
@@ -230,28 +301,47 @@ public class ServerThread extends BaseServerThread {
     java.util.Map<Long,Boolean> away,
     java.util.Map<Long,Boolean> spectators ) {
 
+    send(userListPayload(getClientId(), points, eliminated, pending, away, spectators));
+    }
+
+    // Brief: Builds the USER_LIST payload; broadcasts pass DEFAULT_CLIENT_ID so one frame fits everyone.
+    protected static UserListPayload userListPayload(long clientId,
+    java.util.Map<Long,Integer> points,
+    java.util.Map<Long,Boolean> eliminated,
+    java.util.Map<Long,Boolean> pending,
+    java.util.Map<Long,Boolean> away,
+    java.util.Map<Long,Boolean> spectators ) {
     Common.UserListPayload up = new Common.UserListPayload();
     up.setPayloadType(Common.PayloadType.USER_LIST);
-    up.setClientId(getClientId());
+    up.setClientId(clientId);
     up.setPoints(points);
     up.setEliminated(eliminated);
     up.setPending(pending);
     if (away != null) up.setAway(away);
     if (spectators != null) up.setSpectators(spectators);
-    send(up);
+    return up;
     }
 
     public void send(Common.Payload payload) {
         try {
-            out.writeObject(payload);
-            out.flush();
+            writePayload(payload);
         } catch (Exception e) {
-            System.err.println("send(payload) failed for " + getDisplayName() + ": " + e.getMessage());
+            Log.log(Log.Level.WARN, Color.RED, "Thread", getClientId(), "send(payload) failed: %s", e.getMessage());
         }
     }
 
    
 
+    // UCID: lm87 | Date: 2026-10-17
+    // Brief: Marks a client away after AUTO_AWAY_MS without a real action while in a GameRoom.
+    @Override
+    protected void onIdleCheck(long quietMs) {
+        Room room = getCurrentRoom();
+        if (quietMs >= Constants.AUTO_AWAY_MS && room instanceof GameRoom) {
+            ((GameRoom) room).markIdleAway(this); // only queues on the room's mailbox
+        }
+    }
+
     @Override
     protected void onInitialized() {
         // once receiving the desired client name the object is ready
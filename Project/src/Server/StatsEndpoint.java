@@ -0,0 +1,113 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Loopback-only plain-text stats port; answers curl (HTTP) or nc (raw text) with Metrics.render().
+package Server;
+
+import Common.Log;
+import Common.TextFX.Color;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One daemon thread accepting on 127.0.0.1 only, so the stats never leave the
+ * machine. A request starting with "GET " gets an HTTP/1.0 text/plain
+ * response; a connection that sends nothing within a moment (nc) gets the raw
+ * report. Each connection is answered and closed.
+ * <p>
+ * Enabled with -Dstats.port=N (off by default).
+ * </p>
+ */
+public final class StatsEndpoint implements Runnable {
+    private static final int REQUEST_WAIT_MS = 250;
+
+    private final ServerSocket socket;
+
+    private StatsEndpoint(ServerSocket socket) {
+        this.socket = socket;
+    }
+
+    /**
+     * Starts the endpoint if -Dstats.port is set
+     *
+     * @return the endpoint or null if disabled or the port couldn't be bound
+     */
+    public static StatsEndpoint startFromProperties() {
+        Integer port = Integer.getInteger("stats.port");
+        if (port == null || port < 0) {
+            return null;
+        }
+        try {
+            ServerSocket socket = new ServerSocket();
+            socket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            StatsEndpoint endpoint = new StatsEndpoint(socket);
+            Thread t = new Thread(endpoint, "StatsEndpoint");
+            t.setDaemon(true);
+            t.start();
+            Log.log(Log.Level.INFO, Color.YELLOW, "Stats", null, "Serving metrics on %s",
+                    socket.getLocalSocketAddress());
+            return endpoint;
+        } catch (IOException e) {
+            Log.error(Color.RED, "Stats", null, "Couldn't bind stats port " + port, e);
+            return null;
+        }
+    }
+
+    @Override
+    public void run() {
+        while (!socket.isClosed()) {
+            try (Socket conn = socket.accept()) {
+                answer(conn);
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    Log.log(Log.Level.WARN, Color.RED, "Stats", null, "Request failed: %s", e);
+                }
+            }
+        }
+    }
+
+    private void answer(Socket conn) throws IOException {
+        conn.setSoTimeout(REQUEST_WAIT_MS);
+        boolean http = false;
+        try {
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(conn.getInputStream(), StandardCharsets.US_ASCII));
+            String requestLine = in.readLine();
+            http = requestLine != null && requestLine.startsWith("GET ");
+            // drain the headers so the client doesn't see a reset
+            String header;
+            while (http && (header = in.readLine()) != null && !header.isEmpty()) {
+                // ignored
+            }
+        } catch (SocketTimeoutException e) {
+            // nothing sent; plain-text client
+        }
+        byte[] body = Metrics.render().getBytes(StandardCharsets.UTF_8);
+        OutputStream out = conn.getOutputStream();
+        if (http) {
+            out.write(("HTTP/1.0 200 OK\r\nContent-Type: text/plain; charset=utf-8\r\nContent-Length: "
+                    + body.length + "\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        }
+        out.write(body);
+        out.flush();
+    }
+
+    public int getPort() {
+        return socket.getLocalPort();
+    }
+
+    public void close() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // already closed
+        }
+    }
+}
@@ -0,0 +1,196 @@
+// UCID: lm87 | Date: 2026-10-17
+// Brief: Versioned USER_LIST stream for one room: deltas against the last sent state + keyframes.
+package Server;
+
+import Common.Constants;
+import Common.UserListPayload;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers what the room last told its members (per PlayerTable slot) and
+ * turns each sync into a delta holding only the changed entries, so a pick costs one small shared
+ * frame instead of five full maps per member. Every KEYFRAME_EVERY versions
+ * a full keyframe goes out instead. A member that missed a version asks for a
+ * resync and gets the recent deltas it missed (or a keyframe if they're gone).
+ * <p>
+ * Note: Not thread-safe; only used from its room's mailbox.
+ * </p>
+ */
+public class UserListVersions {
+    public static final int KEYFRAME_EVERY = 50;
+    private static final int HISTORY = 32; // deltas kept for resyncs
+
+    // flag bits kept per slot for what was last sent
+    private static final byte ELIMINATED = 1, PENDING = 2, AWAY = 4, SPECTATOR = 8;
+
+    private long version;
+    private long[] sentIds = new long[0]; // slot -> client id last sent (0 = empty)
+    private int[] sentPoints = new int[0];
+    private byte[] sentFlags = new byte[0];
+    private final ArrayDeque<EncodedFrame> history = new ArrayDeque<>(); // oldest first, ends at version
+    private EncodedFrame keyframe; // cached for the current version
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Diffs the room's player table against what was last sent, slot by slot,
+     * and bumps the version if anything changed. Nothing is allocated when
+     * nothing changed.
+     *
+     * @param table    the room's players
+     * @param choosing whether pending flags are shown (only while a round is open)
+     * @return frame to send to every member, or null if nothing changed
+     */
+    public EncodedFrame update(PlayerTable table, boolean choosing) {
+        if (sentIds.length < table.capacity()) {
+            sentIds = Arrays.copyOf(sentIds, table.capacity());
+            sentPoints = Arrays.copyOf(sentPoints, table.capacity());
+            sentFlags = Arrays.copyOf(sentFlags, table.capacity());
+        }
+        Map<Long, Integer> dPoints = null;
+        Map<Long, Boolean> dEliminated = null;
+        Map<Long, Boolean> dPending = null;
+        Map<Long, Boolean> dAway = null;
+        Map<Long, Boolean> dSpectators = null;
+        List<Long> removed = null;
+        for (int slot = 0; slot < sentIds.length; slot++) {
+            long lastId = sentIds[slot];
+            long id = slot < table.capacity() ? table.idAt(slot) : 0; // 0 = free slot
+            if (lastId != 0 && lastId != id && table.slotOf(lastId) < 0) {
+                if (removed == null) {
+                    removed = new ArrayList<>();
+                }
+                removed.add(lastId);
+            }
+            if (id == 0) {
+                sentIds[slot] = 0;
+                continue;
+            }
+            int pts = table.getPoints(slot);
+            byte flags = flags(table, slot, choosing);
+            boolean fresh = lastId != id; // new in this slot: send everything
+            int changed = fresh ? 0xF : sentFlags[slot] ^ flags;
+            if (fresh || pts != sentPoints[slot]) {
+                dPoints = put(dPoints, id, pts);
+            }
+            if ((changed & ELIMINATED) != 0) {
+                dEliminated = put(dEliminated, id, (flags & ELIMINATED) != 0);
+            }
+            if ((changed & PENDING) != 0) {
+                dPending = put(dPending, id, (flags & PENDING) != 0);
+            }
+            if ((changed & AWAY) != 0) {
+                dAway = put(dAway, id, (flags & AWAY) != 0);
+            }
+            if ((changed & SPECTATOR) != 0) {
+                dSpectators = put(dSpectators, id, (flags & SPECTATOR) != 0);
+            }
+            sentIds[slot] = id;
+            sentPoints[slot] = pts;
+            sentFlags[slot] = flags;
+        }
+        if (dPoints == null && dEliminated == null && dPending == null && dAway == null
+                && dSpectators == null && removed == null) {
+            return null;
+        }
+        version++;
+        keyframe = null;
+        if (version % KEYFRAME_EVERY == 0) {
+            history.clear(); // anyone behind catches up from this keyframe
+            return keyframe();
+        }
+        UserListPayload up = ServerThread.userListPayload(Constants.DEFAULT_CLIENT_ID,
+                dPoints, dEliminated, dPending, dAway, dSpectators);
+        up.setKeyframe(false);
+        up.setBaseVersion(version - 1);
+        up.setVersion(version);
+        up.setRemoved(removed);
+        EncodedFrame frame = EncodedFrame.of(up);
+        history.addLast(frame);
+        if (history.size() > HISTORY) {
+            history.removeFirst();
+        }
+        return frame;
+    }
+
+    private static byte flags(PlayerTable table, int slot, boolean choosing) {
+        int f = 0;
+        boolean elim = table.isEliminated(slot);
+        boolean away = table.isAway(slot);
+        if (elim) f |= ELIMINATED;
+        if (choosing && !elim && !away && table.isPending(slot)) f |= PENDING;
+        if (away) f |= AWAY;
+        if (table.isSpectator(slot)) f |= SPECTATOR;
+        return (byte) f;
+    }
+
+    private static <V> Map<Long, V> put(Map<Long, V> map, long id, V value) {
+        if (map == null) {
+            map = new HashMap<>();
+        }
+        map.put(id, value);
+        return map;
+    }
+
+    /**
+     * @return the full state at the current version (built once per version)
+     */
+    public EncodedFrame keyframe() {
+        if (keyframe == null) {
+            Map<Long, Integer> points = new HashMap<>();
+            Map<Long, Boolean> eliminated = new HashMap<>();
+            Map<Long, Boolean> pending = new HashMap<>();
+            Map<Long, Boolean> away = new HashMap<>();
+            Map<Long, Boolean> spectators = new HashMap<>();
+            for (int slot = 0; slot < sentIds.length; slot++) {
+                long id = sentIds[slot];
+                if (id == 0) {
+                    continue;
+                }
+                byte f = sentFlags[slot];
+                points.put(id, sentPoints[slot]);
+                eliminated.put(id, (f & ELIMINATED) != 0);
+                pending.put(id, (f & PENDING) != 0);
+                away.put(id, (f & AWAY) != 0);
+                spectators.put(id, (f & SPECTATOR) != 0);
+            }
+            UserListPayload up = ServerThread.userListPayload(Constants.DEFAULT_CLIENT_ID,
+                    points, eliminated, pending, away, spectators);
+            up.setVersion(version);
+            keyframe = EncodedFrame.of(up);
+        }
+        return keyframe;
+    }
+
+    /**
+     * @param memberVersion last version the member applied
+     * @return frames that bring the member up to date (missed deltas in order,
+     *         or a single keyframe if they're no longer kept)
+     */
+    public List<EncodedFrame> since(long memberVersion) {
+        List<EncodedFrame> frames = new ArrayList<>();
+        long oldest = version - history.size(); // base version of the oldest kept delta
+        if (memberVersion < oldest || memberVersion > version) {
+            frames.add(keyframe());
+            return frames;
+        }
+        int skip = (int) (memberVersion - oldest);
+        Iterator<EncodedFrame> it = history.iterator();
+        for (int i = 0; it.hasNext(); i++) {
+            EncodedFrame frame = it.next();
+            if (i >= skip) {
+                frames.add(frame);
+            }
+        }
+        return frames;
+    }
+}